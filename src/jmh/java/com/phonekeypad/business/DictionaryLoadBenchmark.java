@@ -0,0 +1,25 @@
+package com.phonekeypad.business;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and allocations of loading every bundled dictionary into the trie
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DictionaryLoadBenchmark {
+
+    @Param({"/ubuntu_english_dict", "/darcio_dict", "/ubuntu_english_dict_no_single_letters_shuf"})
+    public String dictionary;
+
+    @Benchmark
+    public Trie loadDictionary() {
+        return new PhoneNumberMatcher(getClass().getResourceAsStream(this.dictionary)).getTrie();
+    }
+}
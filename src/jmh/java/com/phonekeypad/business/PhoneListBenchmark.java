@@ -0,0 +1,57 @@
+package com.phonekeypad.business;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of every engine over the lines of the bundled phone files, dirty input included.
+ * Apart from SpellBenchmark, so it runs once per engine and not once for every phone param it doesn't use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class PhoneListBenchmark {
+    private static final String[] PHONE_FILES = {"/phonesToProcess", "/phonesToProcess_notSameSize",
+            "/phonesToProcess_notUnique", "/phonesToProcess_sameSize", "/phonesToProcess_unique"};
+
+    @Param({"letters", "digits", "memo", "forkjoin"})
+    public String engine;
+
+    private PhoneNumberMatcher pm;
+    private List<String> lines;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.pm = SpellBenchmark.createEngine(this.engine);
+
+        this.lines = new ArrayList<>();
+        for (String phoneFile : PHONE_FILES) {
+            BufferedReader br = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream(phoneFile), StandardCharsets.UTF_8));
+            for (String line = br.readLine(); line != null; line = br.readLine())
+                this.lines.add(line);
+            br.close();
+        }
+    }
+
+    /**
+     * Every line of the bundled phonesToProcess files
+     *
+     * @param bh
+     */
+    @Benchmark
+    public void phonesToProcess(Blackhole bh) {
+        for (String line : this.lines)
+            this.pm.spell(line, (word, length) -> bh.consume(length));
+    }
+}
@@ -0,0 +1,74 @@
+package com.phonekeypad.business;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and allocations of the search of every engine, from a few thousand to millions of combinations
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SpellBenchmark {
+    static final String DICTIONARY = "/ubuntu_english_dict";
+
+    @Param({"letters", "digits", "memo", "forkjoin"})
+    public String engine;
+
+    /**
+     * short (7K combinations), medium (2.5M) and pathological (16M, a single repeated digit)
+     */
+    @Param({"225563", "2255632255", "22222222222"})
+    public String phone;
+
+    private PhoneNumberMatcher pm;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.pm = createEngine(this.engine);
+    }
+
+    /**
+     * @param engine letters, digits, memo or forkjoin
+     * @return the matcher of the engine over the benchmark dictionary
+     */
+    static PhoneNumberMatcher createEngine(String engine) {
+        Trie trie = new PhoneNumberMatcher(SpellBenchmark.class.getResourceAsStream(DICTIONARY)).getTrie();
+
+        switch (engine) {
+            case "digits":
+                return new DigitIndexMatcher(trie);
+            case "memo":
+                return new MemoizedMatcher(trie);
+            case "forkjoin":
+                return new ForkJoinMatcher(trie);
+            default:
+                return new PhoneNumberMatcher(trie);
+        }
+    }
+
+    /**
+     * All combinations of one phone number, through the allocation free callback
+     *
+     * @param bh
+     */
+    @Benchmark
+    public void spell(Blackhole bh) {
+        this.pm.spell(this.phone, (word, length) -> bh.consume(length));
+    }
+
+    /**
+     * The same phone number through the String callback, paying one String per combination
+     *
+     * @param bh
+     */
+    @Benchmark
+    public void matches(Blackhole bh) {
+        this.pm.matches(this.phone, bh::consume);
+    }
+}
@@ -0,0 +1,87 @@
+package com.phonekeypad.console;
+
+import com.phonekeypad.business.PhoneNumberMatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end throughput of the batch mode, for every engine: reading the phone files, matching and printing every combination
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ProcessFilesBenchmark {
+    private static final String DICTIONARY = "/ubuntu_english_dict";
+    private static final String[] PHONE_FILES = {"/phonesToProcess", "/phonesToProcess_notSameSize",
+            "/phonesToProcess_notUnique", "/phonesToProcess_sameSize", "/phonesToProcess_unique"};
+
+    /**
+     * The search engine, built like --engine does
+     */
+    @Param({"letters", "digits", "memo", "forkjoin"})
+    public String engine;
+
+    /**
+     * 1 runs the sequential processFiles, more runs the BatchPipeline
+     */
+    @Param({"1", "4"})
+    public int threads;
+
+    private PhoneNumberMatcher pm;
+    private List<byte[]> phoneFiles;
+
+    @Setup
+    public void setup() throws IOException {
+        this.pm = ConsoleClient.createMatcher(new String[]{"--engine=" + this.engine}, null, getClass().getResourceAsStream(DICTIONARY));
+
+        this.phoneFiles = new ArrayList<>();
+        for (String phoneFile : PHONE_FILES) {
+            InputStream is = getClass().getResourceAsStream(phoneFile);
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int read = is.read(buffer); read != -1; read = is.read(buffer))
+                baos.write(buffer, 0, read);
+            is.close();
+            this.phoneFiles.add(baos.toByteArray());
+        }
+    }
+
+    @Benchmark
+    public long processFiles() {
+        List<InputStream> files = new ArrayList<>();
+        for (byte[] phoneFile : this.phoneFiles)
+            files.add(new ByteArrayInputStream(phoneFile));
+
+        CountingOutputStream out = new CountingOutputStream();
+        if (this.threads > 1)
+            new BatchPipeline(this.pm, this.threads).process(files, out);
+        else
+            ConsoleClient.processFiles(this.pm, files, out);
+
+        return out.count;
+    }
+
+    /**
+     * Discards the output, just counting its bytes
+     */
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            this.count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            this.count += len;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.phonekeypad.business;
+
+import java.util.Arrays;
+
+/**
+ * Ternary search trie kept in flat primitive arrays, instead of one heap object per node.
+ * <p/>
+ * A node is just an int index: its char lives in chars[node], and its left, mid and right
+ * links live side by side in links[3 * node], links[3 * node + 1] and links[3 * node + 2].
+ * Missing links are NIL.
+ * <p/>
+ * Not thread safe while words are put, safe to be read by many threads after loaded.
+ */
+public class CompactTrie implements Trie {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final byte FINISHES_A_WORD = 1;
+
+    private char[] chars;
+    private int[] links;
+    private byte[] flags;
+    private int size;
+    private int root = NIL;
+
+    /**
+     * Empty trie constructor
+     */
+    public CompactTrie() {
+        this.chars = new char[INITIAL_CAPACITY];
+        this.links = new int[INITIAL_CAPACITY * 3];
+        this.flags = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Put a word into this trie
+     *
+     * @param key
+     * @return the node of the last char of the key
+     */
+    public int put(String key) {
+        return put(key.toCharArray());
+    }
+
+    /**
+     * Put a word into this trie
+     *
+     * @param key
+     * @return the node of the last char of the key
+     */
+    public int put(char[] key) {
+        if (this.root == NIL)
+            this.root = newNode(key[0]);
+
+        return put(this.root, key, 0);
+    }
+
+    /**
+     * put a word into this trie, below the node x (never NIL)
+     *
+     * @param x
+     * @param key
+     * @param d
+     * @return the node of the last char of the key
+     */
+    protected int put(int x, char[] key, int d) {
+        char c = key[d];
+        if (c < this.chars[x]) return put(child(x, 0, c), key, d);
+        else if (c > this.chars[x]) return put(child(x, 2, c), key, d);
+        else if (d < key.length - 1) return put(child(x, 1, key[d + 1]), key, d + 1);
+
+        this.flags[x] |= FINISHES_A_WORD;
+        return x;
+    }
+
+    /**
+     * Get a link of the node, creating the linked node when missing
+     *
+     * @param x
+     * @param link 0 left, 1 mid, 2 right
+     * @param c    char of a new node
+     * @return
+     */
+    private int child(int x, int link, char c) {
+        int child = this.links[3 * x + link];
+        if (child == NIL) {
+            child = newNode(c); //may grow the arrays
+            this.links[3 * x + link] = child;
+        }
+        return child;
+    }
+
+    /**
+     * Allocate a node at the end of the arrays
+     *
+     * @param c
+     * @return
+     */
+    private int newNode(char c) {
+        if (this.size == this.chars.length)
+            resize(this.size * 2);
+
+        int x = this.size++;
+        this.chars[x] = c;
+        this.links[3 * x] = NIL;
+        this.links[3 * x + 1] = NIL;
+        this.links[3 * x + 2] = NIL;
+        return x;
+    }
+
+    /**
+     * Resize the node arrays
+     *
+     * @param capacity
+     */
+    private void resize(int capacity) {
+        this.chars = Arrays.copyOf(this.chars, capacity);
+        this.links = Arrays.copyOf(this.links, capacity * 3);
+        this.flags = Arrays.copyOf(this.flags, capacity);
+    }
+
+    /**
+     * Release the unused capacity, after all words were put
+     */
+    public void trimToSize() {
+        if (this.size < this.chars.length)
+            resize(Math.max(this.size, 1));
+    }
+
+    /**
+     * Find the sibling node of the given char, starting at node x
+     *
+     * @param x
+     * @param c
+     * @return the node or NIL
+     */
+    @Override
+    public int find(int x, char c) {
+        while (x != NIL && c != this.chars[x])
+            x = c < this.chars[x] ? this.links[3 * x] : this.links[3 * x + 2];
+
+        return x;
+    }
+
+    @Override
+    public int root() {
+        return this.root;
+    }
+
+    @Override
+    public char chr(int x) {
+        return this.chars[x];
+    }
+
+    @Override
+    public int left(int x) {
+        return this.links[3 * x];
+    }
+
+    @Override
+    public int mid(int x) {
+        return this.links[3 * x + 1];
+    }
+
+    @Override
+    public int right(int x) {
+        return this.links[3 * x + 2];
+    }
+
+    @Override
+    public boolean finishesAWord(int x) {
+        return (this.flags[x] & FINISHES_A_WORD) != 0;
+    }
+
+    /**
+     * @return number of nodes
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return bytes held by the node arrays
+     */
+    public long memoryFootprint() {
+        return this.chars.length * 2L + this.links.length * 4L + this.flags.length;
+    }
+}
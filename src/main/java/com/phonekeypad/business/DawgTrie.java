@@ -0,0 +1,179 @@
+package com.phonekeypad.business;
+
+import java.util.Arrays;
+
+/**
+ * Minimized ternary search trie: a directed acyclic word graph sharing the common suffixes of the words,
+ * besides the common prefixes. Immutable, thread safe class!
+ * <p/>
+ * Built from a trie by hash consing its nodes from the leaves up: two nodes with the same char, the same
+ * end of word flag and the same (already shared) left, mid and right nodes spell the same words, so a single
+ * node is kept for both. Every suffix level repeated across the dictionary, like the ones of -ING, -TION or -S,
+ * is stored once.
+ * <p/>
+ * Same flat arrays and node ids of CompactTrie, behind the same Trie interface, so every search engine and
+ * DictionarySnapshot work on it unchanged. A node may now have many parents: code walking the whole trie must
+ * not assume every node is reached once.
+ */
+public class DawgTrie implements Trie {
+    private static final byte FINISHES_A_WORD = 1;
+    private static final int UNVISITED = -2;
+
+    private char[] chars;
+    private int[] links;
+    private byte[] flags;
+    private int size;
+    private final int root;
+
+    //open addressing table of the unique nodes, only while building
+    private int[] table;
+
+    /**
+     * Minimize the trie
+     *
+     * @param trie
+     */
+    public DawgTrie(Trie trie) {
+        int capacity = Math.max(trie.size(), 1);
+        this.chars = new char[capacity];
+        this.links = new int[capacity * 3];
+        this.flags = new byte[capacity];
+        this.table = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+        Arrays.fill(this.table, NIL);
+
+        this.root = trie.root() == NIL ? NIL : minimize(trie);
+
+        this.table = null;
+        this.chars = Arrays.copyOf(this.chars, Math.max(this.size, 1));
+        this.links = Arrays.copyOf(this.links, Math.max(this.size, 1) * 3);
+        this.flags = Arrays.copyOf(this.flags, Math.max(this.size, 1));
+    }
+
+    /**
+     * Share every node of the trie, children before their parents, with no recursion
+     *
+     * @param trie
+     * @return the shared node of the root
+     */
+    private int minimize(Trie trie) {
+        int[] shared = new int[trie.size()];
+        Arrays.fill(shared, UNVISITED);
+
+        //a node stays on the stack until its children are shared
+        int[] stack = new int[trie.size() * 3 + 1];
+        int top = 0;
+        stack[top++] = trie.root();
+
+        while (top > 0) {
+            int x = stack[top - 1];
+            if (shared[x] != UNVISITED) {
+                top--;
+                continue;
+            }
+
+            boolean ready = true;
+            for (int link = 0; link < 3; link++) {
+                int child = link == 0 ? trie.left(x) : link == 1 ? trie.mid(x) : trie.right(x);
+                if (child != NIL && shared[child] == UNVISITED) {
+                    stack[top++] = child;
+                    ready = false;
+                }
+            }
+
+            if (ready) {
+                top--;
+                shared[x] = intern(trie.chr(x), trie.finishesAWord(x),
+                        sharedLink(shared, trie.left(x)), sharedLink(shared, trie.mid(x)), sharedLink(shared, trie.right(x)));
+            }
+        }
+
+        return shared[trie.root()];
+    }
+
+    private static int sharedLink(int[] shared, int x) {
+        return x == NIL ? NIL : shared[x];
+    }
+
+    /**
+     * Find the node with the same char, flag and links, or create it
+     *
+     * @return the shared node
+     */
+    private int intern(char c, boolean finishesAWord, int left, int mid, int right) {
+        byte flag = finishesAWord ? FINISHES_A_WORD : 0;
+        int hash = ((c * 31 + flag) * 31 + left) * 31 + mid;
+        hash = (hash * 31 + right) * 0x9E3779B9;
+
+        int mask = this.table.length - 1;
+        for (int i = (hash ^ hash >>> 16) & mask; ; i = (i + 1) & mask) {
+            int x = this.table[i];
+            if (x == NIL) {
+                x = this.size++;
+                this.chars[x] = c;
+                this.flags[x] = flag;
+                this.links[3 * x] = left;
+                this.links[3 * x + 1] = mid;
+                this.links[3 * x + 2] = right;
+                this.table[i] = x;
+                return x;
+            }
+
+            if (this.chars[x] == c && this.flags[x] == flag
+                    && this.links[3 * x] == left && this.links[3 * x + 1] == mid && this.links[3 * x + 2] == right)
+                return x;
+        }
+    }
+
+    @Override
+    public int find(int x, char c) {
+        while (x != NIL && c != this.chars[x])
+            x = c < this.chars[x] ? this.links[3 * x] : this.links[3 * x + 2];
+
+        return x;
+    }
+
+    @Override
+    public int root() {
+        return this.root;
+    }
+
+    @Override
+    public char chr(int x) {
+        return this.chars[x];
+    }
+
+    @Override
+    public int left(int x) {
+        return this.links[3 * x];
+    }
+
+    @Override
+    public int mid(int x) {
+        return this.links[3 * x + 1];
+    }
+
+    @Override
+    public int right(int x) {
+        return this.links[3 * x + 2];
+    }
+
+    @Override
+    public boolean finishesAWord(int x) {
+        return (this.flags[x] & FINISHES_A_WORD) != 0;
+    }
+
+    /**
+     * @return number of shared nodes
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return bytes held by the node arrays
+     */
+    public long memoryFootprint() {
+        return this.chars.length * 2L + this.links.length * 4L + this.flags.length;
+    }
+}
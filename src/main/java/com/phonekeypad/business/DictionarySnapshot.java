@@ -0,0 +1,302 @@
+package com.phonekeypad.business;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.util.*;
+
+/**
+ * Precompiled dictionary: the built trie written as a versioned binary file, that can be memory mapped
+ * and queried directly, without reading, normalizing and inserting every word again.
+ * <p/>
+ * File layout (big endian):
+ * <pre>
+ * int    MAGIC
+ * int    VERSION
+ * int    size (number of nodes)
+ * int    root node
+ * char[] chars, one per node (padded to 4 bytes)
+ * int[]  left, mid and right links, three per node
+ * byte[] flags, one per node
+ * int    number of word frequencies (since version 2)
+ * then, for every word with a frequency, sorted by word:
+ * int    length
+ * char[] word
+ * int    frequency
+ * </pre>
+ * Version 1 snapshots, without the frequencies, are still read.
+ */
+public class DictionarySnapshot {
+    public static final int MAGIC = 0x50535044; //PSPD
+    public static final int VERSION = 2;
+
+    private static final int FIRST_VERSION = 1;
+
+    private static final int HEADER_SIZE = 16;
+
+    /**
+     * Write the trie as a snapshot file
+     *
+     * @param trie
+     * @param file
+     * @throws IOException
+     */
+    public static void write(Trie trie, File file) throws IOException {
+        write(trie, Collections.emptyMap(), file);
+    }
+
+    /**
+     * Write the trie and the frequencies of its words as a snapshot file
+     *
+     * @param trie
+     * @param frequencies the frequency column of the word list, by normalized word
+     * @param file
+     * @throws IOException
+     */
+    public static void write(Trie trie, Map<String, Integer> frequencies, File file) throws IOException {
+        try (OutputStream os = new FileOutputStream(file)) {
+            write(trie, frequencies, os);
+        }
+    }
+
+    /**
+     * Write the trie as a snapshot
+     *
+     * @param trie
+     * @param os
+     * @throws IOException
+     */
+    public static void write(Trie trie, OutputStream os) throws IOException {
+        write(trie, Collections.emptyMap(), os);
+    }
+
+    /**
+     * Write the trie and the frequencies of its words as a snapshot
+     *
+     * @param trie
+     * @param frequencies the frequency column of the word list, by normalized word
+     * @param os
+     * @throws IOException
+     */
+    public static void write(Trie trie, Map<String, Integer> frequencies, OutputStream os) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+        int size = trie.size();
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(size);
+        out.writeInt(trie.root());
+
+        for (int x = 0; x < size; x++)
+            out.writeChar(trie.chr(x));
+        for (int i = charsPadding(size); i > 0; i--)
+            out.writeByte(0);
+
+        for (int x = 0; x < size; x++) {
+            out.writeInt(trie.left(x));
+            out.writeInt(trie.mid(x));
+            out.writeInt(trie.right(x));
+        }
+
+        for (int x = 0; x < size; x++)
+            out.writeByte(trie.finishesAWord(x) ? 1 : 0);
+
+        out.writeInt(frequencies.size());
+        for (Map.Entry<String, Integer> entry : new TreeMap<>(frequencies).entrySet()) {
+            out.writeInt(entry.getKey().length());
+            out.writeChars(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+
+        out.flush();
+    }
+
+    /**
+     * Memory map a snapshot file. The trie is queried straight from the mapped pages.
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static Trie map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new MappedTrie(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Read a snapshot from a stream (like a class path resource, that can't be mapped) into the heap
+     *
+     * @param is
+     * @return
+     * @throws IOException
+     */
+    public static Trie read(InputStream is) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] buffer = new byte[64 * 1024];
+        for (int n = is.read(buffer); n >= 0; n = is.read(buffer))
+            baos.write(buffer, 0, n);
+
+        return new MappedTrie(ByteBuffer.wrap(baos.toByteArray()));
+    }
+
+    /**
+     * Check if the file is a snapshot
+     *
+     * @param file
+     * @return
+     */
+    public static boolean isSnapshot(File file) {
+        if (!file.isFile())
+            return false;
+
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return file.length() >= HEADER_SIZE && in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Peek the stream looking for the snapshot magic. The stream must support mark.
+     *
+     * @param is
+     * @return
+     * @throws IOException
+     */
+    public static boolean isSnapshot(InputStream is) throws IOException {
+        is.mark(4);
+        try {
+            int magic = 0;
+            for (int i = 0; i < 4; i++) {
+                int b = is.read();
+                if (b < 0)
+                    return false;
+                magic = (magic << 8) | b;
+            }
+            return magic == MAGIC;
+        } finally {
+            is.reset();
+        }
+    }
+
+    /**
+     * The frequencies kept in a snapshot trie
+     *
+     * @param trie
+     * @return the frequency column of the word list, by normalized word, empty when the trie is not a snapshot
+     * or the snapshot has none
+     */
+    public static Map<String, Integer> frequencies(Trie trie) {
+        return trie instanceof MappedTrie ? ((MappedTrie) trie).frequencies : Collections.emptyMap();
+    }
+
+    /**
+     * Bytes after the chars, keeping the links aligned to 4 bytes
+     *
+     * @param size
+     * @return
+     */
+    private static int charsPadding(int size) {
+        return (size * 2) % 4;
+    }
+
+    /**
+     * Trie queried straight from the snapshot bytes
+     */
+    private static class MappedTrie implements Trie {
+        private final ByteBuffer buffer;
+        private final int size;
+        private final int root;
+        private final int charsOffset;
+        private final int linksOffset;
+        private final int flagsOffset;
+        private final Map<String, Integer> frequencies;
+
+        MappedTrie(ByteBuffer buffer) {
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+                throw new IllegalArgumentException("Not a dictionary snapshot!");
+
+            int version = buffer.getInt(4);
+            if (version < FIRST_VERSION || version > VERSION)
+                throw new IllegalArgumentException(MessageFormat.format("Dictionary snapshot version {0} not supported, expected {1}!", version, VERSION));
+
+            this.buffer = buffer;
+            this.size = buffer.getInt(8);
+            this.root = buffer.getInt(12);
+            this.charsOffset = HEADER_SIZE;
+            this.linksOffset = this.charsOffset + this.size * 2 + charsPadding(this.size);
+            this.flagsOffset = this.linksOffset + this.size * 12;
+
+            if (buffer.capacity() < this.flagsOffset + this.size)
+                throw new IllegalArgumentException("Truncated dictionary snapshot!");
+
+            try {
+                this.frequencies = version == FIRST_VERSION ? Collections.emptyMap() : readFrequencies(this.flagsOffset + this.size);
+            } catch (IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Truncated dictionary snapshot!", e);
+            }
+        }
+
+        /**
+         * Read the word frequencies into the heap, once: the ranked search looks them up by word
+         *
+         * @param offset
+         * @return
+         */
+        private Map<String, Integer> readFrequencies(int offset) {
+            int count = this.buffer.getInt(offset);
+            offset += 4;
+            if (count == 0)
+                return Collections.emptyMap();
+
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                char[] word = new char[this.buffer.getInt(offset)];
+                offset += 4;
+                for (int c = 0; c < word.length; c++, offset += 2)
+                    word[c] = this.buffer.getChar(offset);
+                frequencies.put(new String(word), this.buffer.getInt(offset));
+                offset += 4;
+            }
+            return frequencies;
+        }
+
+        @Override
+        public int root() {
+            return this.root;
+        }
+
+        @Override
+        public char chr(int x) {
+            return this.buffer.getChar(this.charsOffset + 2 * x);
+        }
+
+        @Override
+        public int left(int x) {
+            return this.buffer.getInt(this.linksOffset + 12 * x);
+        }
+
+        @Override
+        public int mid(int x) {
+            return this.buffer.getInt(this.linksOffset + 12 * x + 4);
+        }
+
+        @Override
+        public int right(int x) {
+            return this.buffer.getInt(this.linksOffset + 12 * x + 8);
+        }
+
+        @Override
+        public boolean finishesAWord(int x) {
+            return this.buffer.get(this.flagsOffset + x) != 0;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+    }
+}
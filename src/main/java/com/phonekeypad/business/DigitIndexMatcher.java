@@ -0,0 +1,245 @@
+package com.phonekeypad.business;
+
+import java.io.InputStream;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * A PhoneNumberMatcher that indexes the dictionary by the keypad digits of its words. Thread safe class!
+ * <p/>
+ * Words sharing the same digit sequence (like CALL and BALL, 2255) hang from the same trie node,
+ * so one trie step per phone digit reaches every candidate word, instead of walking the letter trie
+ * once for each of the 3 or 4 letters of every digit.
+ * <p/>
+ * Produces exactly the same combinations, in the same order, as the letter trie of PhoneNumberMatcher.
+ */
+public class DigitIndexMatcher extends PhoneNumberMatcher {
+    private CompactTrie digitTrie;
+    private char[][][] nodeWords;
+    private Comparator<char[]> wordOrder;
+
+    /**
+     * Constructor that uses a given dictionary config
+     *
+     * @param dictionary
+     */
+    public DigitIndexMatcher(InputStream dictionary) {
+        super(dictionary);
+    }
+
+    /**
+     * Constructor that uses a given dictionary and keypad config
+     *
+     * @param dictionary
+     * @param keypad
+     */
+    public DigitIndexMatcher(InputStream dictionary, Keypad keypad) {
+        super(dictionary, keypad);
+    }
+
+    /**
+     * Constructor that indexes the words of an already built dictionary trie
+     *
+     * @param dictionary
+     */
+    public DigitIndexMatcher(Trie dictionary) {
+        super(dictionary);
+    }
+
+    /**
+     * Constructor that indexes the words of an already built dictionary trie, with a given keypad config
+     *
+     * @param dictionary
+     * @param keypad
+     */
+    public DigitIndexMatcher(Trie dictionary, Keypad keypad) {
+        super(dictionary, keypad);
+    }
+
+    /**
+     * Try every word spelling the digits from digitIndex on, in the same order the letter trie would have found them.
+     *
+     * @param phone
+     * @param digitIndex
+     * @param word
+     * @param letterIndex
+     * @param consumer
+     * @param allowSkip
+     * @return
+     */
+    @Override
+    protected boolean matchesWords(String phone, int digitIndex, char[] word, int letterIndex, WordConsumer consumer, boolean allowSkip) {
+        List<char[]> candidates = findWords(phone, digitIndex);
+
+        for (char[] candidate : candidates) {
+            System.arraycopy(candidate, 0, word, letterIndex, candidate.length);
+
+            int nextDigit = digitIndex + candidate.length;
+            if (nextDigit < phone.length())
+                startWord(phone, nextDigit, word, letterIndex + candidate.length, consumer, true);
+            else
+                consumeWord(word, letterIndex + candidate.length, consumer);
+        }
+
+        if (candidates.isEmpty() && this.stats != null)
+            this.stats.deadEnd();
+
+        return !candidates.isEmpty();
+    }
+
+    /**
+     * Walk the digit trie along the phone digits, collecting every word that spells them from digitIndex on.
+     *
+     * @param phone
+     * @param digitIndex
+     * @return the words, in the order the letter trie would have found them
+     */
+    @Override
+    protected List<char[]> findWords(String phone, int digitIndex) {
+        List<char[]> candidates = new ArrayList<>();
+
+        int node = this.digitTrie.root();
+        for (int d = digitIndex; d < phone.length() && node != Trie.NIL; d++) {
+            node = this.digitTrie.find(node, phone.charAt(d));
+            if (node == Trie.NIL)
+                break;
+
+            if (this.stats != null)
+                this.stats.nodeVisited();
+
+            if (this.digitTrie.finishesAWord(node))
+                Collections.addAll(candidates, this.nodeWords[node]);
+
+            node = this.digitTrie.mid(node);
+        }
+
+        if (candidates.size() > 1)
+            candidates.sort(this.wordOrder);
+
+        return candidates;
+    }
+
+    /**
+     * Load the dictionary into the digit trie
+     *
+     * @param isDictionary archive containing the dictionary info
+     */
+    @Override
+    protected void loadDictionary(InputStream isDictionary) {
+        startDigitIndex();
+        super.loadDictionary(isDictionary);
+        finishDigitIndex();
+    }
+
+    /**
+     * Index every word of an already built dictionary trie
+     *
+     * @param dictionary
+     */
+    @Override
+    protected void loadDictionary(Trie dictionary) {
+        super.loadDictionary(dictionary);
+
+        startDigitIndex();
+        dictionary.forEachWord(this::put);
+        finishDigitIndex();
+    }
+
+    /**
+     * No letter trie summaries, the search walks the digit trie instead
+     */
+    @Override
+    protected void summarizeTrie() {
+    }
+
+    /**
+     * Start an empty digit trie
+     */
+    protected void startDigitIndex() {
+        this.wordOrder = this::compareWords;
+        this.digitTrie = new CompactTrie();
+        this.nodeWords = new char[0][][];
+    }
+
+    /**
+     * Release the unused capacity of the digit trie
+     */
+    protected void finishDigitIndex() {
+        this.digitTrie.trimToSize();
+        this.nodeWords = Arrays.copyOf(this.nodeWords, this.digitTrie.size());
+    }
+
+    /**
+     * Index a word by its keypad digits. Words with letters out of the keypad can't be spelled and are ignored.
+     *
+     * @param key
+     */
+    @Override
+    protected void put(String key) {
+        char[] digits = new char[key.length()];
+        for (int i = 0; i < key.length(); i++) {
+            digits[i] = this.keypad.digitOf(key.charAt(i));
+            if (digits[i] == Keypad.NO_DIGIT)
+                return;
+        }
+
+        int node = this.digitTrie.put(digits);
+        if (node >= this.nodeWords.length)
+            this.nodeWords = Arrays.copyOf(this.nodeWords, Math.max(node + 1, this.nodeWords.length * 2));
+
+        this.nodeWords[node] = addWord(this.nodeWords[node], key.toCharArray());
+    }
+
+    /**
+     * Every indexed word, as the letter trie may be empty
+     *
+     * @param consumer
+     */
+    @Override
+    protected void forEachWord(Consumer<String> consumer) {
+        for (char[][] words : this.nodeWords)
+            if (words != null)
+                for (char[] word : words)
+                    consumer.accept(new String(word));
+    }
+
+    /**
+     * Add a word to the words of a digit node, keeping them sorted and unique
+     *
+     * @param words
+     * @param word
+     * @return
+     */
+    protected char[][] addWord(char[][] words, char[] word) {
+        if (words == null)
+            return new char[][]{word};
+
+        int pos = Arrays.binarySearch(words, word, this.wordOrder);
+        if (pos >= 0)
+            return words;
+
+        pos = -pos - 1;
+        char[][] newWords = new char[words.length + 1][];
+        System.arraycopy(words, 0, newWords, 0, pos);
+        newWords[pos] = word;
+        System.arraycopy(words, pos, newWords, pos + 1, words.length - pos);
+        return newWords;
+    }
+
+    /**
+     * Order in which the letter trie reaches the words: letter by letter in keypad order,
+     * and a longer word before any shorter word that is its prefix.
+     *
+     * @param a
+     * @param b
+     * @return
+     */
+    protected int compareWords(char[] a, char[] b) {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i])
+                return this.keypad.rank(a[i]) - this.keypad.rank(b[i]);
+        }
+        return b.length - a.length;
+    }
+}
@@ -0,0 +1,223 @@
+package com.phonekeypad.business;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * A PhoneNumberMatcher that splits the independent branches of one phone number across a ForkJoinPool. Thread safe class!
+ * <p/>
+ * While fewer than forkDepth digits were consumed, the skip and no skip branches of a word start, and every
+ * candidate letter of a digit, run as separate tasks, each one over its own copy of the word buffer.
+ * Below that depth the branches are too small to pay a task, and the search goes on sequentially.
+ * <p/>
+ * The consumer is called by one thread at a time, but the results come in no particular order.
+ * When it throws, like a SearchControl stopping the search or a write to a client gone, the whole search is
+ * aborted: the tasks still running throw at their next step, and the consumer is never called after search returns.
+ */
+public class ForkJoinMatcher extends PhoneNumberMatcher {
+    public static final int DEFAULT_FORK_DEPTH = 6;
+
+    private int forkDepth = DEFAULT_FORK_DEPTH;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * Constructor that uses a given dictionary config
+     *
+     * @param dictionary
+     */
+    public ForkJoinMatcher(InputStream dictionary) {
+        super(dictionary);
+    }
+
+    /**
+     * Constructor that uses a given dictionary and keypad config
+     *
+     * @param dictionary
+     * @param keypad
+     */
+    public ForkJoinMatcher(InputStream dictionary, Keypad keypad) {
+        super(dictionary, keypad);
+    }
+
+    /**
+     * Constructor that uses an already built dictionary trie
+     *
+     * @param dictionary
+     */
+    public ForkJoinMatcher(Trie dictionary) {
+        super(dictionary);
+    }
+
+    /**
+     * Constructor that uses an already built dictionary trie and a given keypad config
+     *
+     * @param dictionary
+     * @param keypad
+     */
+    public ForkJoinMatcher(Trie dictionary, Keypad keypad) {
+        super(dictionary, keypad);
+    }
+
+    /**
+     * Explore the word combinations inside the pool
+     *
+     * @param cleanPhone
+     * @param consumer
+     */
+    @Override
+    protected void search(String cleanPhone, WordConsumer consumer) {
+        SharedConsumer sharedConsumer = new SharedConsumer(consumer);
+
+        try {
+            this.pool.invoke(ForkJoinTask.adapt(() ->
+                    startWord(cleanPhone, 0, new char[cleanPhone.length() * 2], 0, sharedConsumer, true)));
+        } catch (RuntimeException e) {
+            sharedConsumer.abort(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Fork the no skip branch, while running the skip branch
+     *
+     * @param phone
+     * @param digitIndex
+     * @param word
+     * @param letterIndex
+     * @param consumer
+     * @param allowSkip
+     * @return
+     */
+    @Override
+    protected Boolean startWordBranches(String phone, int digitIndex, char[] word, int letterIndex, WordConsumer consumer, boolean allowSkip) {
+        if (digitIndex >= this.forkDepth || !allowSkip)
+            return super.startWordBranches(phone, digitIndex, word, letterIndex, consumer, allowSkip);
+
+        int wordIndex = putWordSeparation(word, letterIndex);
+
+        //the first branch without skip, over a copy of the word
+        char[] regularWord = word.clone();
+        ForkJoinTask<Boolean> regularAttempt = ForkJoinTask.adapt(() ->
+                matchesWords(phone, digitIndex, regularWord, wordIndex, consumer, true)).fork();
+
+        //the second branch, skipping the first char
+        if (this.stats != null)
+            this.stats.skipBranch();
+        skipDigit(phone, digitIndex, word, wordIndex, consumer);
+
+        return regularAttempt.join();
+    }
+
+    /**
+     * Fork a task for every candidate letter of the digit
+     *
+     * @param node
+     * @param phone
+     * @param digitIndex
+     * @param word
+     * @param letterIndex
+     * @param consumer
+     * @param skips
+     * @return
+     */
+    @Override
+    protected Boolean matchesLetters(int node, String phone, int digitIndex, char[] word, int letterIndex, WordConsumer consumer, boolean skips) {
+        char[] letters = this.keypad.letters(phone.charAt(digitIndex));
+        if (digitIndex >= this.forkDepth || letters == null)
+            return super.matchesLetters(node, phone, digitIndex, word, letterIndex, consumer, skips);
+
+        if (prune(node, phone, digitIndex))
+            return false;
+
+        List<ForkJoinTask<Boolean>> tasks = new ArrayList<>(letters.length);
+        for (char letter : letters) {
+            char[] letterWord = word.clone();
+            tasks.add(ForkJoinTask.adapt(() ->
+                    matchInternal(node, phone, digitIndex, letterWord, letterIndex, consumer, letter, skips)));
+        }
+
+        boolean worked = false;
+        for (ForkJoinTask<Boolean> task : ForkJoinTask.invokeAll(tasks))
+            if (task.join())
+                worked = true;
+
+        return worked;
+    }
+
+    /**
+     * @param forkDepth digits consumed before the branches run sequentially
+     */
+    public void setForkDepth(int forkDepth) {
+        this.forkDepth = forkDepth;
+    }
+
+    /**
+     * @param pool pool running the branches, the common pool by default
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * The consumer shared by the tasks of one search. The first failure of any task aborts them all: the forked
+     * siblings are not joined once a task throws, so they throw it again at their next step instead.
+     */
+    private static final class SharedConsumer implements WordConsumer {
+        private final WordConsumer consumer;
+        private volatile RuntimeException failure;
+
+        private SharedConsumer(WordConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void accept(char[] word, int length) {
+            synchronized (this.consumer) {
+                checkAborted();
+                try {
+                    this.consumer.accept(word, length);
+                } catch (RuntimeException e) {
+                    fail(e);
+                    throw e;
+                }
+            }
+        }
+
+        @Override
+        public void checkpoint() {
+            checkAborted();
+            try {
+                this.consumer.checkpoint();
+            } catch (RuntimeException e) {
+                fail(e);
+                throw e;
+            }
+        }
+
+        /**
+         * Abort the search, waiting for a result being accepted by another task
+         *
+         * @param e
+         */
+        private void abort(RuntimeException e) {
+            fail(e);
+            synchronized (this.consumer) {
+                //no accept in flight, the next ones see the failure
+            }
+        }
+
+        private void fail(RuntimeException e) {
+            if (this.failure == null)
+                this.failure = e;
+        }
+
+        private void checkAborted() {
+            RuntimeException e = this.failure;
+            if (e != null)
+                throw e;
+        }
+    }
+}
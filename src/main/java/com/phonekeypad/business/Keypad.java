@@ -0,0 +1,158 @@
+package com.phonekeypad.business;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.Arrays;
+
+/**
+ * A phone keypad layout: the letters of every digit. Immutable, thread safe class!
+ * <p/>
+ * Lookups are plain array accesses: the letters are indexed by the digit char, and the digit
+ * and position of a letter are indexed by the letter char. No hashing, no boxing.
+ * <p/>
+ * Layouts are loaded from config files with one digit per line, like 2=ABC. Lines starting with # are comments.
+ * The built in layouts live in the /keypads resources: e161 (the default), legacy (without Q and Z), greek and russian.
+ */
+public class Keypad {
+    public static final char NO_DIGIT = 0;
+    public static final String DEFAULT_LAYOUT = "e161";
+
+    private static final String LAYOUTS_PATH = "/keypads/";
+    private static final Keypad DEFAULT = builtIn(DEFAULT_LAYOUT);
+
+    private final String name;
+    private final char[][] letters = new char[128][];
+    private char[] digits = new char[0];
+    private byte[] ranks = new byte[0];
+
+    /**
+     * Empty keypad, with no letter
+     *
+     * @param name
+     */
+    protected Keypad(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the ITU E.161 keypad
+     */
+    public static Keypad getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param name
+     * @return if there is a built in keypad layout with the name
+     */
+    public static boolean isBuiltIn(String name) {
+        return Keypad.class.getResource(LAYOUTS_PATH + name) != null;
+    }
+
+    /**
+     * Load a built in keypad layout
+     *
+     * @param name e161, legacy, greek or russian
+     * @return
+     */
+    public static Keypad builtIn(String name) {
+        InputStream is = Keypad.class.getResourceAsStream(LAYOUTS_PATH + name);
+        if (is == null)
+            throw new IllegalArgumentException(MessageFormat.format("Keypad layout {0} not found!", name));
+
+        try {
+            return load(name, is);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(MessageFormat.format("Error trying to read the keypad layout {0}!", name), e);
+        }
+    }
+
+    /**
+     * Load a keypad layout config file (UTF-8)
+     *
+     * @param name
+     * @param isKeypad
+     * @return
+     * @throws IOException
+     */
+    public static Keypad load(String name, InputStream isKeypad) throws IOException {
+        Keypad keypad = new Keypad(name);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(isKeypad, StandardCharsets.UTF_8));
+
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+
+            String[] parts = line.split("=");
+            String digit = parts[0].trim();
+            if (parts.length != 2 || digit.length() != 1 || digit.charAt(0) < '0' || digit.charAt(0) > '9')
+                throw new IllegalArgumentException(MessageFormat.format("Invalid keypad line \"{0}\" in {1}!", line, name));
+
+            keypad.put(digit.charAt(0), parts[1].trim().toUpperCase().toCharArray());
+        }
+
+        return keypad;
+    }
+
+    /**
+     * Map the letters to a digit
+     *
+     * @param digit
+     * @param digitLetters
+     */
+    protected void put(char digit, char[] digitLetters) {
+        if (this.letters[digit] != null)
+            throw new IllegalArgumentException(MessageFormat.format("Digit {0} mapped twice in keypad {1}!", digit, this.name));
+
+        for (int i = 0; i < digitLetters.length; i++) {
+            char letter = digitLetters[i];
+            if (digitOf(letter) != NO_DIGIT)
+                throw new IllegalArgumentException(MessageFormat.format("Letter {0} mapped twice in keypad {1}!", letter, this.name));
+
+            if (letter >= this.digits.length) {
+                this.digits = Arrays.copyOf(this.digits, letter + 1);
+                this.ranks = Arrays.copyOf(this.ranks, letter + 1);
+            }
+            this.digits[letter] = digit;
+            this.ranks[letter] = (byte) i;
+        }
+
+        this.letters[digit] = digitLetters;
+    }
+
+    /**
+     * The candidate letters of a digit
+     *
+     * @param digit
+     * @return the letters or null, for digits with no letter (usually 0 and 1)
+     */
+    public char[] letters(char digit) {
+        return digit < this.letters.length ? this.letters[digit] : null;
+    }
+
+    /**
+     * The digit of a letter
+     *
+     * @param letter
+     * @return the digit or NO_DIGIT, for letters out of the keypad
+     */
+    public char digitOf(char letter) {
+        return letter < this.digits.length ? this.digits[letter] : NO_DIGIT;
+    }
+
+    /**
+     * The position of a letter among the letters of its digit
+     *
+     * @param letter a letter of the keypad
+     * @return
+     */
+    public int rank(char letter) {
+        return this.ranks[letter];
+    }
+
+    public String getName() {
+        return this.name;
+    }
+}
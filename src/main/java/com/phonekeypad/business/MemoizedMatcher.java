@@ -0,0 +1,76 @@
+package com.phonekeypad.business;
+
+import java.io.InputStream;
+
+/**
+ * A DigitIndexMatcher that solves every search sub-problem once. Thread safe class!
+ * <p/>
+ * The recursive search solves the same (digitIndex, allowSkip) state again for every prefix reaching it.
+ * Here each state is solved once into a SpellingGraph, and the combinations are enumerated from the
+ * shared graph. Dead states are pruned while solving, so every step of the enumeration leads to a result,
+ * and the time grows with the number of results instead of the number of redundant paths.
+ * <p/>
+ * Produces exactly the same combinations, in the same order, as PhoneNumberMatcher.
+ */
+public class MemoizedMatcher extends DigitIndexMatcher {
+
+    /**
+     * Constructor that uses a given dictionary config
+     *
+     * @param dictionary
+     */
+    public MemoizedMatcher(InputStream dictionary) {
+        super(dictionary);
+    }
+
+    /**
+     * Constructor that uses a given dictionary and keypad config
+     *
+     * @param dictionary
+     * @param keypad
+     */
+    public MemoizedMatcher(InputStream dictionary, Keypad keypad) {
+        super(dictionary, keypad);
+    }
+
+    /**
+     * Constructor that indexes the words of an already built dictionary trie
+     *
+     * @param dictionary
+     */
+    public MemoizedMatcher(Trie dictionary) {
+        super(dictionary);
+    }
+
+    /**
+     * Constructor that uses an already built dictionary trie and a given keypad config
+     *
+     * @param dictionary
+     * @param keypad
+     */
+    public MemoizedMatcher(Trie dictionary, Keypad keypad) {
+        super(dictionary, keypad);
+    }
+
+    /**
+     * Solve the phone number graph and enumerate its combinations, checking the consumer limits on every
+     * solved state and every edge walked
+     *
+     * @param cleanPhone
+     * @param consumer
+     */
+    @Override
+    protected void search(String cleanPhone, WordConsumer consumer) {
+        SpellingGraphBuilder.build(this, cleanPhone, this.stats, consumer).forEach(consumer);
+    }
+
+    /**
+     * Clean the phone number and solve all its states
+     *
+     * @param phone
+     * @return
+     */
+    public SpellingGraph buildGraph(String phone) {
+        return SpellingGraphBuilder.build(this, cleanPhoneNumber(phone), this.stats, null);
+    }
+}
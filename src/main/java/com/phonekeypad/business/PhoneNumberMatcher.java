@@ -1,9 +1,14 @@
 package com.phonekeypad.business;
 
 import java.io.*;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.text.Normalizer;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.regex.Pattern;
 
 /**
@@ -11,13 +16,29 @@ import java.util.regex.Pattern;
  * <p/>
  * Makes all possible matches for a given phone number.
  * <p/>
- * For every match, call the given consumer or lambda function.
+ * For every match, call the given consumer or lambda function. A WordConsumer receives every match
+ * straight from the search buffer, without creating a String.
+ * <p/>
+ * Search counters and latencies are collected only after enableStats, a null check otherwise.
+ * Repeated numbers are answered from a ResultCache only after enableCache.
+ * <p/>
+ * Every call may be cut short by a SearchControl: a maximum number of results, a deadline or cancellation.
+ * Calls without their own control use the default limits, none unless setDefaultLimits.
+ * <p/>
+ * Besides the whole number combinations, spot finds every dictionary word spelled anywhere in a number,
+ * in a single linear pass.
  */
 public class PhoneNumberMatcher {
-    private static final Pattern PHONE_CLEAN_PATTERN = Pattern.compile("[^\\d.]");
     private static final Pattern WORD_CLEAN_PATTERN = Pattern.compile("[\\p{InCombiningDiacriticalMarks}|\'|\\s]");
-    private Node root;
-    private Map<Character, char[]> keyPad;
+    private Trie trie;
+    private TrieSummary summary;
+    protected Keypad keypad;
+    protected SearchStats stats;
+    private volatile ResultCache cache;
+    private volatile long maxResults = Long.MAX_VALUE;
+    private volatile long timeoutMillis = Long.MAX_VALUE;
+    private Map<String, Integer> frequencies = Collections.emptyMap();
+    private volatile VanityAutomaton spotter;
 
     /**
      * Constructor that uses a given dictionary config
@@ -25,24 +46,184 @@ public class PhoneNumberMatcher {
      * @param dictionary
      */
     public PhoneNumberMatcher(InputStream dictionary) {
-        loadDefaultKeypad();
+        this(dictionary, Keypad.getDefault());
+    }
+
+    /**
+     * Constructor that uses a given dictionary and keypad config
+     *
+     * @param dictionary
+     * @param keypad
+     */
+    public PhoneNumberMatcher(InputStream dictionary, Keypad keypad) {
+        this.keypad = keypad;
+        loadDictionary(dictionary);
+    }
+
+    /**
+     * Constructor that uses an already built dictionary trie, like a mapped DictionarySnapshot
+     *
+     * @param dictionary
+     */
+    public PhoneNumberMatcher(Trie dictionary) {
+        this(dictionary, Keypad.getDefault());
+    }
+
+    /**
+     * Constructor that uses an already built dictionary trie and a given keypad config
+     *
+     * @param dictionary
+     * @param keypad
+     */
+    public PhoneNumberMatcher(Trie dictionary, Keypad keypad) {
+        this.keypad = keypad;
         loadDictionary(dictionary);
     }
 
+    /**
+     * Constructor without dictionary, for matchers delegating the search to other matchers
+     *
+     * @param keypad
+     */
+    protected PhoneNumberMatcher(Keypad keypad) {
+        this.keypad = keypad;
+    }
+
     /**
      * Clean the initial word and start to explore word combinations
      *
      * @param phone
      * @param consumer
+     * @return how the search ended, cut short only by the default limits
      */
-    public void matches(String phone, Consumer<String> consumer) {
-        String cleanPhone = cleanPhoneNumber(phone);
+    public SearchStatus matches(String phone, Consumer<String> consumer) {
+        return spell(phone, WordConsumer.of(consumer));
+    }
+
+    /**
+     * Clean the initial word and explore word combinations within the limits of the control
+     *
+     * @param phone
+     * @param consumer
+     * @param control  limits of this call, or null for the default limits
+     * @return how the search ended
+     */
+    public SearchStatus matches(String phone, Consumer<String> consumer, SearchControl control) {
+        return spell(phone, WordConsumer.of(consumer), control);
+    }
+
+    /**
+     * Clean the initial word and start to explore word combinations, without creating a String for every match
+     *
+     * @param phone
+     * @param consumer
+     * @return how the search ended, cut short only by the default limits
+     */
+    public SearchStatus spell(String phone, WordConsumer consumer) {
+        return spellClean(cleanPhoneNumber(phone), consumer);
+    }
+
+    /**
+     * Clean the initial word and explore word combinations within the limits of the control,
+     * without creating a String for every match
+     *
+     * @param phone
+     * @param consumer
+     * @param control  limits of this call, or null for the default limits
+     * @return how the search ended
+     */
+    public SearchStatus spell(String phone, WordConsumer consumer, SearchControl control) {
+        return spellClean(cleanPhoneNumber(phone), consumer, control);
+    }
+
+    /**
+     * Explore the word combinations of an already clean phone number, only digits and dots,
+     * like the ones pulled straight from the input bytes by the batch readers
+     *
+     * @param cleanPhone
+     * @param consumer
+     * @return how the search ended, cut short only by the default limits
+     */
+    public SearchStatus spellClean(String cleanPhone, WordConsumer consumer) {
+        return spellClean(cleanPhone, consumer, null);
+    }
 
+    /**
+     * Explore the word combinations of an already clean phone number within the limits of the control.
+     * A search cut short gives only part of the combinations, and they are not cached.
+     *
+     * @param cleanPhone
+     * @param consumer
+     * @param control    limits of this call, or null for the default limits
+     * @return how the search ended
+     */
+    public SearchStatus spellClean(String cleanPhone, WordConsumer consumer, SearchControl control) {
         if (cleanPhone.isEmpty())
-            return;
+            return SearchStatus.COMPLETED;
 
-        this.startWord(cleanPhone, 0, new char[cleanPhone.length() * 2], 0, consumer, true);
+        if (control == null)
+            control = defaultControl();
+
+        SearchStats searchStats = this.stats;
+        if (searchStats == null && control == null) {
+            cachedSearch(cleanPhone, consumer);
+            return SearchStatus.COMPLETED;
+        }
+
+        //the control is the outer consumer, so the stats count only the results given
+        WordConsumer target = searchStats == null ? consumer : searchStats.counting(consumer);
+        if (control != null)
+            target = control.control(target);
+
+        long start = System.nanoTime();
+        SearchStatus status = SearchStatus.COMPLETED;
+        try {
+            cachedSearch(cleanPhone, target);
+        } catch (RuntimeException e) {
+            if (!SearchControl.isStop(e))
+                throw e;
+            status = control.getStatus();
+        }
+
+        if (searchStats != null) {
+            searchStats.callFinished(System.nanoTime() - start);
+            if (status.isCutShort())
+                searchStats.callCutShort();
+        }
+        return status;
+    }
+
+    /**
+     * @return a control with the default limits, or null when there are none
+     */
+    private SearchControl defaultControl() {
+        if (this.maxResults == Long.MAX_VALUE && this.timeoutMillis == Long.MAX_VALUE)
+            return null;
+        return new SearchControl().setMaxResults(this.maxResults).setTimeout(this.timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Search through the result cache, when there is one
+     *
+     * @param cleanPhone
+     * @param consumer
+     */
+    private void cachedSearch(String cleanPhone, WordConsumer consumer) {
+        ResultCache resultCache = this.cache;
+        if (resultCache == null)
+            search(cleanPhone, consumer);
+        else
+            resultCache.spell(cleanPhone, consumer, this::search);
+    }
 
+    /**
+     * Explore all word combinations of an already clean, not empty phone number
+     *
+     * @param cleanPhone
+     * @param consumer
+     */
+    protected void search(String cleanPhone, WordConsumer consumer) {
+        this.startWord(cleanPhone, 0, new char[cleanPhone.length() * 2], 0, consumer, true);
     }
 
     /**
@@ -63,10 +244,11 @@ public class PhoneNumberMatcher {
      * @param allowSkip
      * @return
      */
-    protected Boolean startWord(String phone, int digitIndex, char[] word, int letterIndex, Consumer<String> consumer, boolean allowSkip) {
+    protected Boolean startWord(String phone, int digitIndex, char[] word, int letterIndex, WordConsumer consumer, boolean allowSkip) {
+        consumer.checkpoint();
 
         //check digits to ignore, like 1 and 0
-        char[] letters = this.keyPad.get(phone.charAt(digitIndex));
+        char[] letters = this.keypad.letters(phone.charAt(digitIndex));
         if (letters == null) {
             letterIndex = putWordSeparation(word, letterIndex);
         }
@@ -75,9 +257,9 @@ public class PhoneNumberMatcher {
             digitIndex++;
             letterIndex++;
             if (digitIndex < phone.length()) {
-                letters = this.keyPad.get(phone.charAt(digitIndex)); //take the candidate letters
+                letters = this.keypad.letters(phone.charAt(digitIndex)); //take the candidate letters
             } else {
-                consumeWord(word, consumer);
+                consumeWord(word, letterIndex, consumer);
                 return true;
             }
         }
@@ -99,30 +281,62 @@ public class PhoneNumberMatcher {
      * @param allowSkip
      * @return
      */
-    protected Boolean startWordBranches(String phone, int digitIndex, char[] word, int letterIndex, Consumer<String> consumer, boolean allowSkip) {
+    protected Boolean startWordBranches(String phone, int digitIndex, char[] word, int letterIndex, WordConsumer consumer, boolean allowSkip) {
         letterIndex = putWordSeparation(word, letterIndex);
 
         //the first branch without skip
-        boolean regularAttempt = matchesLetters(this.root, phone, digitIndex, word, letterIndex, consumer, allowSkip);
+        boolean regularAttempt = matchesWords(phone, digitIndex, word, letterIndex, consumer, allowSkip);
 
         //the second branch, skipping the first char
         if (allowSkip) {
-            //write the phone number digit as a letter directly into the work.
-            word[letterIndex] = phone.charAt(digitIndex);
+            if (this.stats != null)
+                this.stats.skipBranch();
+            skipDigit(phone, digitIndex, word, letterIndex, consumer);
+        }
 
-            //skip this digit
-            digitIndex++;
-            letterIndex++;
+        return regularAttempt;
+    }
 
-            if (digitIndex < phone.length()) {
-                startWord(phone, digitIndex, word, letterIndex, consumer, false);
-            } else {
-                //skip the last letter and print the sequence of words
-                consumeWord(word, consumer);
-            }
+    /**
+     * The skip branch of a word start: keep the digit itself and start the next word, not allowing another skip
+     *
+     * @param phone
+     * @param digitIndex
+     * @param word
+     * @param letterIndex
+     * @param consumer
+     */
+    protected void skipDigit(String phone, int digitIndex, char[] word, int letterIndex, WordConsumer consumer) {
+        //write the phone number digit as a letter directly into the work.
+        word[letterIndex] = phone.charAt(digitIndex);
+
+        //skip this digit
+        digitIndex++;
+        letterIndex++;
+
+        if (digitIndex < phone.length()) {
+            startWord(phone, digitIndex, word, letterIndex, consumer, false);
+        } else {
+            //skip the last letter and print the sequence of words
+            consumeWord(word, letterIndex, consumer);
         }
+    }
 
-        return regularAttempt;
+    /**
+     * The regular branch of a word start: look for every dictionary word starting at the given digit.
+     * <p/>
+     * Walks the letter trie from its root, trying every letter of every digit.
+     *
+     * @param phone
+     * @param digitIndex
+     * @param word
+     * @param letterIndex
+     * @param consumer
+     * @param allowSkip
+     * @return
+     */
+    protected boolean matchesWords(String phone, int digitIndex, char[] word, int letterIndex, WordConsumer consumer, boolean allowSkip) {
+        return matchesLetters(this.trie.root(), phone, digitIndex, word, letterIndex, consumer, allowSkip);
     }
 
     /**
@@ -137,8 +351,11 @@ public class PhoneNumberMatcher {
      * @param skips
      * @return
      */
-    protected Boolean matchesLetters(Node node, String phone, int digitIndex, char[] word, int letterIndex, Consumer<String> consumer, boolean skips) {
-        char[] letters = this.keyPad.get(phone.charAt(digitIndex)); //take the candidate letters (3 or 4)
+    protected Boolean matchesLetters(int node, String phone, int digitIndex, char[] word, int letterIndex, WordConsumer consumer, boolean skips) {
+        if (prune(node, phone, digitIndex))
+            return false;
+
+        char[] letters = this.keypad.letters(phone.charAt(digitIndex)); //take the candidate letters (3 or 4)
         boolean worked = false;
 
         //if some letters was found
@@ -151,6 +368,23 @@ public class PhoneNumberMatcher {
         return worked;
     }
 
+    /**
+     * Give up a trie level before walking it, if the digit spells none of its letters or too few digits remain
+     *
+     * @param node
+     * @param phone
+     * @param digitIndex
+     * @return true if the level is surely a dead end
+     */
+    protected boolean prune(int node, String phone, int digitIndex) {
+        if (this.summary == null || this.summary.canContinue(node, phone, digitIndex))
+            return false;
+
+        if (this.stats != null)
+            this.stats.deadEnd();
+        return true;
+    }
+
     /**
      * Traverse the trie structure. At the end of the branch, if matches with a possible good
      * word combination, consumes the word (println or something)
@@ -164,52 +398,63 @@ public class PhoneNumberMatcher {
      * @param skips
      * @return
      */
-    protected boolean matchInternal(Node node, String phone, int digitIndex, char[] word, int letterIndex, Consumer<String> consumer, Character letter, boolean skips) {
-        if (node == null)
+    protected boolean matchInternal(int node, String phone, int digitIndex, char[] word, int letterIndex, WordConsumer consumer, char letter, boolean skips) {
+        if (node == Trie.NIL) {
+            if (this.stats != null)
+                this.stats.deadEnd();
             return false;
+        }
+
+        consumer.checkpoint();
+        if (this.stats != null)
+            this.stats.nodeVisited();
 
         boolean result;
+        char c = this.trie.chr(node);
 
-        if (letter < node.c)
-            result = matchInternal(node.left, phone, digitIndex, word, letterIndex, consumer, letter, skips);
-        else if (letter > node.c)
-            result = matchInternal(node.right, phone, digitIndex, word, letterIndex, consumer, letter, skips);
+        if (letter < c)
+            result = matchInternal(this.trie.left(node), phone, digitIndex, word, letterIndex, consumer, letter, skips);
+        else if (letter > c)
+            result = matchInternal(this.trie.right(node), phone, digitIndex, word, letterIndex, consumer, letter, skips);
         else {
-            word[letterIndex] = node.c;//write the char into the word
+            word[letterIndex] = c;//write the char into the word
 
             skips=true;//when any char was finally included into the word, i'll allow some skip again
 
-            if (node.finishesAWord) {
+            if (this.trie.finishesAWord(node)) {
                 if (digitIndex < phone.length() - 1) {
-                    Boolean sameWord = matchesLetters(node.mid, phone, digitIndex + 1, word, letterIndex + 1, consumer, skips);
+                    Boolean sameWord = matchesLetters(this.trie.mid(node), phone, digitIndex + 1, word, letterIndex + 1, consumer, skips);
                     Boolean nextWord = startWord(phone, digitIndex + 1, word, letterIndex + 1, consumer, skips);
 
                     result = nextWord || sameWord;
 
                 } else {
-                    consumeWord(word, consumer);
+                    consumeWord(word, letterIndex + 1, consumer);
                     result = true;
                 }
             } else {
                 if (digitIndex < phone.length() - 1)
-                    result = matchesLetters(node.mid, phone, digitIndex + 1, word, letterIndex + 1, consumer, skips);
-                else
+                    result = matchesLetters(this.trie.mid(node), phone, digitIndex + 1, word, letterIndex + 1, consumer, skips);
+                else {
+                    if (this.stats != null)
+                        this.stats.deadEnd();
                     result = false;
+                }
             }
         }
 
-        cleanupWord(word, letterIndex);
         return result;
     }
 
     /**
-     * Clean the word and call the consumer callback
+     * Call the consumer callback with the first length chars of the word
      *
      * @param word
+     * @param length
      * @param consumer
      */
-    protected void consumeWord(char[] word, Consumer<String> consumer) {
-        consumer.accept(new String(word).trim());
+    protected void consumeWord(char[] word, int length, WordConsumer consumer) {
+        consumer.accept(word, length);
     }
 
     /**
@@ -229,104 +474,533 @@ public class PhoneNumberMatcher {
     }
 
     /**
+     * Keep only the digits and dots of the phone number, like 0-800-CALL (55)
+     *
      * @param phone
-     * @return
+     * @return the same String when already clean
      */
     protected String cleanPhoneNumber(String phone) {
-        return PHONE_CLEAN_PATTERN.matcher(phone).replaceAll("").trim();
+        int length = phone.length();
+        int i = 0;
+        while (i < length && isPhoneChar(phone.charAt(i)))
+            i++;
+
+        if (i == length)
+            return phone;
+
+        char[] clean = new char[length];
+        phone.getChars(0, i, clean, 0);
+        int cleanLength = i;
+        for (; i < length; i++)
+            if (isPhoneChar(phone.charAt(i)))
+                clean[cleanLength++] = phone.charAt(i);
+
+        return new String(clean, 0, cleanLength);
     }
 
     /**
-     * Clean a word using a space char in the given element range
+     * @param c
+     * @return if the char is kept in a clean phone number: an ASCII digit or a dot
+     */
+    public static boolean isPhoneChar(char c) {
+        return (c >= '0' && c <= '9') || c == '.';
+    }
+
+    /**
+     * Put the words median first, so the trie comes out balanced whatever the order of the word list.
+     * <p/>
+     * The words are sorted and deduplicated, then the median word of every range is put before the words
+     * of both halves: the first letters of each trie level arrive middle first, like in a binary search tree
+     * built from a sorted array.
      *
-     * @param word
-     * @param f
-     * @param t
+     * @param words the words, sorted in place
      */
-    protected void cleanupWord(char[] word, int f, int t) {
-        for (int i = f; i < t; i++) {
-            word[i] = ' ';
-        }
+    protected void putBalanced(List<String> words) {
+        Collections.sort(words);
+
+        int unique = 0;
+        for (String word : words)
+            if (unique == 0 || !word.equals(words.get(unique - 1)))
+                words.set(unique++, word);
+
+        putMedians(words, 0, unique);
     }
 
     /**
-     * Clean a word using a space char in the given element range
+     * Put the median word of the range, then the medians of both halves
      *
-     * @param word
-     * @param f
+     * @param words
+     * @param from  inclusive
+     * @param to    exclusive
      */
-    protected void cleanupWord(char[] word, int f) {
-        cleanupWord(word, f, word.length);
+    private void putMedians(List<String> words, int from, int to) {
+        if (from >= to)
+            return;
+
+        int median = (from + to) >>> 1;
+        put(words.get(median));
+        putMedians(words, from, median);
+        putMedians(words, median + 1, to);
     }
 
     /**
-     * Put a word into this trie
+     * Put a word into this trie. Only while loading a word list, the trie is a CompactTrie then.
      *
      * @param key
      */
     protected void put(String key) {
-        root = put(root, key, 0);
+        ((CompactTrie) this.trie).put(key);
     }
 
     /**
-     * put a word into this trie
+     * Start collecting search counters and latencies, if not yet collecting
+     *
+     * @return the stats of this matcher
+     */
+    public SearchStats enableStats() {
+        if (this.stats == null)
+            this.stats = new SearchStats();
+        return this.stats;
+    }
+
+    /**
+     * @return the stats of this matcher, or null when not collecting
+     */
+    public SearchStats getStats() {
+        return this.stats;
+    }
+
+    /**
+     * @param stats the stats to collect into, or null to stop collecting
+     */
+    public void setStats(SearchStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Start caching the combinations of the last maxEntries numbers
+     *
+     * @param maxEntries
+     * @return the cache of this matcher
+     */
+    public ResultCache enableCache(int maxEntries) {
+        this.cache = new ResultCache(maxEntries);
+        return this.cache;
+    }
+
+    /**
+     * @return the cache of this matcher, or null when not caching
+     */
+    public ResultCache getCache() {
+        return this.cache;
+    }
+
+    /**
+     * @param cache the cache to use, or null to stop caching
+     */
+    public void setCache(ResultCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Limits of every call without its own SearchControl, so a single huge or slow number can not stall a front end
+     *
+     * @param maxResults    combinations given per call, Long.MAX_VALUE for no limit
+     * @param timeoutMillis time per call, Long.MAX_VALUE for no limit
+     */
+    public void setDefaultLimits(long maxResults, long timeoutMillis) {
+        if (maxResults < 0 || timeoutMillis < 0)
+            throw new IllegalArgumentException("The search limits can not be negative!");
+        this.maxResults = maxResults;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * @return combinations given per call without its own SearchControl, Long.MAX_VALUE for no limit
+     */
+    public long getDefaultMaxResults() {
+        return this.maxResults;
+    }
+
+    /**
+     * @return time per call without its own SearchControl, Long.MAX_VALUE for no limit
+     */
+    public long getDefaultTimeoutMillis() {
+        return this.timeoutMillis;
+    }
+
+    /**
+     * The k best combinations of the phone number, found best first: the search stops once they are proven,
+     * without enumerating the other combinations
+     *
+     * @param phone
+     * @param k
+     * @param scorer score of every token, a combination scores the sum of its tokens
+     * @return the combinations, best first
+     */
+    public List<String> topK(String phone, int k, SpellingScorer scorer) {
+        return new RankedSearch(this, cleanPhoneNumber(phone), scorer).top(k);
+    }
+
+    /**
+     * The k best combinations of the phone number, with the default scorer
+     *
+     * @param phone
+     * @param k
+     * @return the combinations, best first
+     */
+    public List<String> topK(String phone, int k) {
+        return topK(phone, k, SpellingScorer.DEFAULT);
+    }
+
+    /**
+     * The exact number of combinations of the phone number, counted on the search states without building them
+     *
+     * @param phone
+     * @return
+     */
+    public BigInteger count(String phone) {
+        return new SpellingCounter(this, cleanPhoneNumber(phone)).count();
+    }
+
+    /**
+     * The exact number of combinations of the phone number, solving its states within the limits of the control:
+     * only the time and the cancel apply, a count gives no results
+     *
+     * @param phone
+     * @param control limits of this call, or null for the default limits
+     * @return the number of combinations, or null when the control cut the count short
+     */
+    public BigInteger count(String phone, SearchControl control) {
+        if (control == null)
+            control = defaultControl();
+        if (control == null)
+            return count(phone);
+
+        try {
+            return new SpellingCounter(this, cleanPhoneNumber(phone), control.control((word, length) -> {
+            })).count();
+        } catch (RuntimeException e) {
+            if (!SearchControl.isStop(e))
+                throw e;
+            return null;
+        }
+    }
+
+    /**
+     * A page of the combinations of the phone number, like results 200 to 250 of 1.3M. The combinations before
+     * the offset are skipped by their counts, not enumerated. Same order of spell, so the pages are stable.
+     *
+     * @param phone
+     * @param offset combinations to skip
+     * @param limit  most combinations of the page
+     * @return the combinations of the page, empty past the last one
+     */
+    public List<String> page(String phone, long offset, int limit) {
+        List<String> page = new ArrayList<>();
+        page(phone, offset, limit, WordConsumer.of(page::add));
+        return page;
+    }
+
+    /**
+     * Call the consumer with a page of the combinations of the phone number, straight from the walk buffer,
+     * within the default limits like spell
+     *
+     * @param phone
+     * @param offset   combinations to skip
+     * @param limit    most combinations of the page
+     * @param consumer
+     * @return how the page ended, cut short only by the default limits
+     */
+    public SearchStatus page(String phone, long offset, int limit, WordConsumer consumer) {
+        if (offset < 0 || limit < 0)
+            throw new IllegalArgumentException("The page offset and limit can not be negative!");
+
+        SearchControl control = defaultControl();
+        try {
+            WordConsumer target = control == null ? consumer : control.control(consumer);
+            new SpellingCounter(this, cleanPhoneNumber(phone), target).page(offset, limit, target);
+        } catch (RuntimeException e) {
+            if (!SearchControl.isStop(e))
+                throw e;
+            return control.getStatus();
+        }
+        return SearchStatus.COMPLETED;
+    }
+
+    /**
+     * Lazy iterator of the word combinations: the search states are expanded and the combinations are built only as
+     * far as taken.
+     * Same combinations and order of spell, without the stats, cache and limits of a spell call.
+     *
+     * @param phone
+     * @return
+     */
+    public Iterator<String> iterator(String phone) {
+        return new SpellingIterator(this, cleanPhoneNumber(phone));
+    }
+
+    /**
+     * Lazy, sequential stream of the word combinations: short circuiting operations, like limit or findFirst,
+     * stop the search
+     *
+     * @param phone
+     * @return
+     */
+    public Stream<String> stream(String phone) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(phone), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Walk the letter trie along the phone digits, collecting every word that spells them from digitIndex on
+     *
+     * @param phone
+     * @param digitIndex
+     * @return the words, in the order the search finds them
+     */
+    protected List<char[]> findWords(String phone, int digitIndex) {
+        List<char[]> words = new ArrayList<>();
+        collectWords(this.trie.root(), phone, digitIndex, new char[phone.length() - digitIndex], 0, words);
+        return words;
+    }
+
+    /**
+     * Collect the words of a trie level and the levels below it
+     *
+     * @param node
+     * @param phone
+     * @param digitIndex
+     * @param word
+     * @param length
+     * @param words
+     */
+    private void collectWords(int node, String phone, int digitIndex, char[] word, int length, List<char[]> words) {
+        if (digitIndex == phone.length() || node == Trie.NIL || prune(node, phone, digitIndex))
+            return;
+
+        char[] letters = this.keypad.letters(phone.charAt(digitIndex));
+        if (letters == null)
+            return;
+
+        for (char letter : letters) {
+            int x = this.trie.find(node, letter);
+            if (x == Trie.NIL)
+                continue;
+
+            //a longer word before any shorter word that is its prefix, like matchInternal
+            word[length] = letter;
+            collectWords(this.trie.mid(x), phone, digitIndex + 1, word, length + 1, words);
+            if (this.trie.finishesAWord(x))
+                words.add(Arrays.copyOf(word, length + 1));
+        }
+    }
+
+    /**
+     * Every dictionary word spelled by some consecutive digits of the phone number, anywhere in it.
+     * Unlike matches, the words do not have to cover the whole number: a single pass of the spotting automaton
+     * over the digits, with no combination enumerated.
+     *
+     * @param phone
+     * @return the hits, by end position and then by word
+     */
+    public List<WordHit> spot(String phone) {
+        List<WordHit> hits = new ArrayList<>();
+        spot(phone, (digits, length, start, word) -> hits.add(new WordHit(start, start + word.length(), word)));
+        return hits;
+    }
+
+    /**
+     * Call the consumer with every dictionary word spelled anywhere in the phone number, straight from the scan
+     *
+     * @param phone
+     * @param consumer called with the clean number, its length, the start of the word and the word
+     * @return the number of hits
+     */
+    public int spot(String phone, VanityAutomaton.MatchConsumer consumer) {
+        String cleanPhone = cleanPhoneNumber(phone);
+        return getSpotter().scan(cleanPhone.toCharArray(), cleanPhone.length(), consumer);
+    }
+
+    /**
+     * The digit automaton of all dictionary words, built at the first spot call. Takes a few megabytes
+     * for a large dictionary, so matchers that never spot never pay for it.
      *
-     * @param x
-     * @param key
-     * @param d
      * @return
      */
-    protected Node put(Node x, String key, int d) {
-        char c = key.charAt(d);
-        if (x == null) {
-            x = new Node();
-            x.c = c;
+    public VanityAutomaton getSpotter() {
+        VanityAutomaton automaton = this.spotter;
+        if (automaton == null) {
+            synchronized (this) {
+                automaton = this.spotter;
+                if (automaton == null) {
+                    List<String> words = new ArrayList<>();
+                    forEachWord(words::add);
+                    automaton = new VanityAutomaton(words, this.keypad);
+                    this.spotter = automaton;
+                }
+            }
         }
-        if (c < x.c) x.left = put(x.left, key, d);
-        else if (c > x.c) x.right = put(x.right, key, d);
-        else if (d < key.length() - 1) x.mid = put(x.mid, key, d + 1);
-        else x.finishesAWord = true;
-        return x;
+        return automaton;
     }
 
+    /**
+     * Call the consumer with every word of the dictionary
+     *
+     * @param consumer
+     */
+    protected void forEachWord(Consumer<String> consumer) {
+        this.trie.forEachWord(consumer);
+    }
+
+    /**
+     * @param word a normalized word
+     * @return the frequency of the word list column, 0 when the word has none
+     */
+    public int getFrequency(String word) {
+        return this.frequencies.getOrDefault(word, 0);
+    }
+
+    /**
+     * @return the frequency column of the word list, by normalized word, empty when the word list has none
+     */
+    public Map<String, Integer> getFrequencies() {
+        return Collections.unmodifiableMap(this.frequencies);
+    }
 
     /**
-     * Load the default telephone Keymap config
+     * @param word
+     * @return the frequency of the word list column, 0 when the word has none
      */
-    protected void loadDefaultKeypad() {
-        this.keyPad = new HashMap<>();
-        this.keyPad.put('2', new char[]{'A', 'B', 'C'});
-        this.keyPad.put('3', new char[]{'D', 'E', 'F'});
-        this.keyPad.put('4', new char[]{'G', 'H', 'I'});
-        this.keyPad.put('5', new char[]{'J', 'K', 'L'});
-        this.keyPad.put('6', new char[]{'M', 'N', 'O'});
-        this.keyPad.put('7', new char[]{'P', 'Q', 'R', 'S'});
-        this.keyPad.put('8', new char[]{'T', 'U', 'V'});
-        this.keyPad.put('9', new char[]{'W', 'X', 'Y', 'Z'});
+    protected int frequency(char[] word) {
+        return this.frequencies.isEmpty() ? 0 : getFrequency(new String(word));
     }
 
     /**
-     * Load the inputStream as a dictionary config
+     * The letter trie of the dictionary
+     *
+     * @return
+     */
+    public Trie getTrie() {
+        return this.trie;
+    }
+
+
+    /**
+     * Use an already built trie as the dictionary, with the word frequencies of a snapshot
+     *
+     * @param dictionary
+     */
+    protected void loadDictionary(Trie dictionary) {
+        this.trie = dictionary;
+        this.frequencies = DictionarySnapshot.frequencies(dictionary);
+        summarizeTrie();
+    }
+
+    /**
+     * Replace the letter trie by its minimized DawgTrie, sharing the common suffixes of the words.
+     * Same words and searches, in less heap.
+     *
+     * @return the minimized trie
+     */
+    public Trie minimizeTrie() {
+        if (!(this.trie instanceof DawgTrie)) {
+            this.trie = new DawgTrie(this.trie);
+            summarizeTrie();
+        }
+        return this.trie;
+    }
+
+    /**
+     * Precompute the trie summaries pruning the letter trie walk
+     */
+    protected void summarizeTrie() {
+        this.summary = new TrieSummary(this.trie, this.keypad);
+    }
+
+    /**
+     * Load the inputStream as a dictionary config. Accepts a plain word list (UTF-8) or a DictionarySnapshot.
+     * <p/>
+     * A word list line may end with the frequency of the word, like "HELLO 1200", used by the ranked search.
+     * Snapshots keep the frequencies too.
      *
      * @param isDictionary archive containing the dictionary info
      */
     protected void loadDictionary(InputStream isDictionary) {
         try {
-            InputStreamReader isr = new InputStreamReader(isDictionary);
+            if (!isDictionary.markSupported())
+                isDictionary = new BufferedInputStream(isDictionary);
+
+            if (DictionarySnapshot.isSnapshot(isDictionary)) {
+                Trie snapshot = DictionarySnapshot.read(isDictionary);
+                loadDictionary(snapshot);
+                return;
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error trying to read the dictionary file!", e);
+        }
+
+        CompactTrie compactTrie = new CompactTrie();
+        this.trie = compactTrie;
+
+        try {
+            InputStreamReader isr = new InputStreamReader(isDictionary, StandardCharsets.UTF_8);
             BufferedReader readerKeyPad = new BufferedReader(isr);
+            List<String> words = new ArrayList<>();
+            Map<String, Integer> wordFrequencies = new HashMap<>();
 
             for (String line = readerKeyPad.readLine(); line != null; line = readerKeyPad.readLine()) {
-                String normalLine = normalize(line);
-                if (!normalLine.isEmpty())
-                    put(normalLine);
+                int column = frequencyColumn(line);
+                String normalLine = normalize(column < 0 ? line : line.substring(0, column));
+                if (normalLine.isEmpty())
+                    continue;
+
+                words.add(normalLine);
+                if (column >= 0)
+                    wordFrequencies.merge(normalLine, parseFrequency(line.substring(column).trim()), Math::max);
             }
 
+            putBalanced(words);
+            this.frequencies = wordFrequencies.isEmpty() ? Collections.emptyMap() : wordFrequencies;
+            compactTrie.trimToSize();
+            summarizeTrie();
+
         } catch (Exception e) {
             throw new IllegalArgumentException("Error trying to read the dictionary file!", e);
         }
     }
 
 
+    /**
+     * Find the optional frequency column of a word list line: a number after the word, separated by whitespace
+     *
+     * @param line
+     * @return the index of the whitespace before the frequency, or -1 when the line has no frequency
+     */
+    protected static int frequencyColumn(String line) {
+        int end = line.length();
+        while (end > 0 && Character.isWhitespace(line.charAt(end - 1)))
+            end--;
+
+        int start = end;
+        while (start > 0 && line.charAt(start - 1) >= '0' && line.charAt(start - 1) <= '9')
+            start--;
+
+        if (start == end || start == 0 || !Character.isWhitespace(line.charAt(start - 1)))
+            return -1;
+        return line.substring(0, start).trim().isEmpty() ? -1 : start - 1;
+    }
+
+    /**
+     * @param digits
+     * @return the frequency, saturated at Integer.MAX_VALUE
+     */
+    private static int parseFrequency(String digits) {
+        long frequency = 0;
+        for (int i = 0; i < digits.length() && frequency < Integer.MAX_VALUE; i++)
+            frequency = frequency * 10 + digits.charAt(i) - '0';
+        return (int) Math.min(frequency, Integer.MAX_VALUE);
+    }
+
     /**
      * Normalize the parameter string, removing any special char or accentuation, fix to upper case;
      *
@@ -334,16 +1008,17 @@ public class PhoneNumberMatcher {
      * @return
      */
     protected String normalize(String str) {
-        str = Normalizer.normalize(str, Normalizer.Form.NFD);
-        return WORD_CLEAN_PATTERN.matcher(str.toUpperCase()).replaceAll("").trim();
+        return normalizeWord(str);
     }
 
     /**
-     * Represents the internal Nodes of a trie
+     * Normalize a word like the dictionary words, removing any special char or accentuation, fix to upper case
+     *
+     * @param str
+     * @return
      */
-    protected class Node {
-        char c;
-        Node left, mid, right;
-        boolean finishesAWord;
+    public static String normalizeWord(String str) {
+        str = Normalizer.normalize(str, Normalizer.Form.NFD);
+        return WORD_CLEAN_PATTERN.matcher(str.toUpperCase()).replaceAll("").trim();
     }
 }
@@ -0,0 +1,167 @@
+package com.phonekeypad.business;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Best first search of the top scored combinations of one clean phone number. Not thread safe, one per call!
+ * <p/>
+ * Walks the SpellingGraph of the number: every state is scored once, with the score of its edges and the best
+ * score from it to the end, so scoring is linear on the states, not on the combinations.
+ * <p/>
+ * The partial combinations are then expanded best first, ranked by their score plus the best score of the rest
+ * of the number. That bound is exact, so the combinations finish in score order, and the search stops at the k-th
+ * one without enumerating the others.
+ */
+public class RankedSearch {
+    private final PhoneNumberMatcher pm;
+    private final SpellingScorer scorer;
+    private final SpellingGraph graph;
+
+    private final double[][] scores;
+    private final double[] best;
+
+    /**
+     * @param pm     matcher with the dictionary and keypad
+     * @param phone  clean phone number
+     * @param scorer
+     */
+    public RankedSearch(PhoneNumberMatcher pm, String phone, SpellingScorer scorer) {
+        this.pm = pm;
+        this.scorer = scorer;
+        this.graph = SpellingGraphBuilder.build(pm, phone, null, null);
+        this.scores = new double[phone.length() * 2][];
+        this.best = new double[phone.length() * 2];
+    }
+
+    /**
+     * @param k
+     * @return the k best combinations, best first. Ties keep the order of the full search.
+     */
+    public List<String> top(int k) {
+        List<String> top = new ArrayList<>();
+        if (this.graph.isEmpty() || k < 1)
+            return top;
+
+        int start = this.graph.start();
+        PriorityQueue<Partial> queue = new PriorityQueue<>();
+        queue.add(new Partial(null, null, start, 0, score(start), new int[0]));
+
+        while (!queue.isEmpty() && top.size() < k) {
+            Partial partial = queue.poll();
+            if (partial.state == SpellingGraph.END) {
+                top.add(partial.toCombination());
+                continue;
+            }
+
+            int state = partial.state;
+            for (int e = 0; e < this.graph.edgeCount(state); e++) {
+                int target = this.graph.target(state, e);
+                double score = partial.score + this.scores[state][e];
+                double bound = target == SpellingGraph.END ? score : score + this.best[target];
+                queue.add(new Partial(partial, this.graph.token(state, e), target, score, bound, partial.extend(e)));
+            }
+        }
+
+        return top;
+    }
+
+    /**
+     * Score the edges of a state once, after the states they lead to
+     *
+     * @param state a live state of the graph
+     * @return the best score from the state to the end
+     */
+    private double score(int state) {
+        if (this.scores[state] != null)
+            return this.best[state];
+
+        double[] stateScores = new double[this.graph.edgeCount(state)];
+        double stateBest = Double.NEGATIVE_INFINITY;
+
+        for (int e = 0; e < stateScores.length; e++) {
+            char[] token = this.graph.token(state, e);
+            //words are letters, the tokens kept as digits start with a digit or a dot
+            int frequency = PhoneNumberMatcher.isPhoneChar(token[0]) ? SpellingScorer.DIGITS : this.pm.frequency(token);
+
+            double score = this.scorer.score(token, frequency);
+            if (Double.isNaN(score) || Double.isInfinite(score))
+                throw new IllegalArgumentException("The score of " + new String(token) + " is not a finite number!");
+
+            int target = this.graph.target(state, e);
+            stateScores[e] = score;
+            stateBest = Math.max(stateBest, target == SpellingGraph.END ? score : score + score(target));
+        }
+
+        this.scores[state] = stateScores;
+        this.best[state] = stateBest;
+        return stateBest;
+    }
+
+    /**
+     * A combination prefix, linked to its previous tokens
+     */
+    private static final class Partial implements Comparable<Partial> {
+        private final Partial previous;
+        private final char[] token;
+        private final int state;
+        private final double score;
+        private final double bound;
+        private final int[] path;
+
+        private Partial(Partial previous, char[] token, int state, double score, double bound, int[] path) {
+            this.previous = previous;
+            this.token = token;
+            this.state = state;
+            this.score = score;
+            this.bound = bound;
+            this.path = path;
+        }
+
+        /**
+         * @param edge
+         * @return the edge indexes from the start state to the edge
+         */
+        private int[] extend(int edge) {
+            int[] extended = Arrays.copyOf(this.path, this.path.length + 1);
+            extended[this.path.length] = edge;
+            return extended;
+        }
+
+        /**
+         * Highest bound first, then by edge indexes from the start state: the position in the full search.
+         * A prefix comes before the partials extending it, so any partial holding an earlier combination
+         * pops before a later tied combination, and the ties keep the order of the full search.
+         */
+        @Override
+        public int compareTo(Partial other) {
+            int byBound = Double.compare(other.bound, this.bound);
+            if (byBound != 0)
+                return byBound;
+
+            int length = Math.min(this.path.length, other.path.length);
+            for (int i = 0; i < length; i++)
+                if (this.path[i] != other.path[i])
+                    return Integer.compare(this.path[i], other.path[i]);
+            return Integer.compare(this.path.length, other.path.length);
+        }
+
+        private String toCombination() {
+            int length = -1;
+            for (Partial p = this; p.token != null; p = p.previous)
+                length += p.token.length + 1;
+
+            char[] chars = new char[length];
+            Arrays.fill(chars, '-');
+            int end = length;
+            for (Partial p = this; p.token != null; p = p.previous) {
+                end -= p.token.length;
+                System.arraycopy(p.token, 0, chars, end, p.token.length);
+                end--;
+            }
+            return new String(chars);
+        }
+    }
+}
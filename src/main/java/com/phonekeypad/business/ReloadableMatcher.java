@@ -0,0 +1,263 @@
+package com.phonekeypad.business;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.file.*;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A PhoneNumberMatcher whose dictionary can be replaced while it is in use. Thread safe class!
+ * <p/>
+ * Every search runs on the current matcher, an immutable dictionary snapshot read once per call from a volatile field:
+ * no lock on the read path. A reload builds a whole new matcher from the new word list, while the current one
+ * keeps answering, and then swaps it in. In flight searches finish on the old dictionary, new searches see the new one.
+ * <p/>
+ * The stats and the default limits are shared by every matcher swapped in, and the result cache is replaced by
+ * an empty one at every swap.
+ */
+public class ReloadableMatcher extends PhoneNumberMatcher {
+    private static final long SETTLE_MILLIS = 500;
+
+    private final Function<InputStream, PhoneNumberMatcher> factory;
+    private final ExecutorService reloader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "phonespell-reloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile PhoneNumberMatcher current;
+    private WatchService watchService;
+
+    /**
+     * @param initial the matcher of the current dictionary
+     * @param factory builds the matcher of a new dictionary, with the same engine and keypad of the initial one
+     */
+    public ReloadableMatcher(PhoneNumberMatcher initial, Function<InputStream, PhoneNumberMatcher> factory) {
+        super(initial.keypad);
+        this.factory = factory;
+        this.current = initial;
+
+        //the stats and cache of the initial matcher now cover every dictionary
+        super.setStats(initial.getStats());
+        setCache(initial.getCache());
+        initial.setCache(null);
+        setDefaultLimits(initial.getDefaultMaxResults(), initial.getDefaultTimeoutMillis());
+    }
+
+    /**
+     * Search on the current dictionary, until the end of the call
+     *
+     * @param cleanPhone
+     * @param consumer
+     */
+    @Override
+    protected void search(String cleanPhone, WordConsumer consumer) {
+        this.current.search(cleanPhone, consumer);
+    }
+
+    /**
+     * Build a matcher from the new dictionary and swap it in. The current dictionary is used meanwhile.
+     *
+     * @param dictionary word list or snapshot, like the constructors of PhoneNumberMatcher
+     */
+    public synchronized void reload(InputStream dictionary) {
+        swap(this.factory.apply(dictionary));
+    }
+
+    /**
+     * Build a matcher from the new dictionary file and swap it in
+     *
+     * @param dictionary
+     */
+    public void reload(File dictionary) {
+        try (InputStream is = new BufferedInputStream(new FileInputStream(dictionary))) {
+            reload(is);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error trying to read the dictionary file!", e);
+        }
+    }
+
+    /**
+     * Reload the dictionary file in a background thread
+     *
+     * @param dictionary
+     * @return completed after the swap, or exceptionally if the new dictionary could not be loaded
+     */
+    public CompletableFuture<Void> reloadInBackground(File dictionary) {
+        return CompletableFuture.runAsync(() -> reload(dictionary), this.reloader);
+    }
+
+    /**
+     * Swap in a matcher of the new dictionary, then replace the result cache.
+     * In this order, a search never caches combinations of the old dictionary into the new cache.
+     *
+     * @param next
+     */
+    protected synchronized void swap(PhoneNumberMatcher next) {
+        next.setStats(getStats());
+        next.setDefaultLimits(getDefaultMaxResults(), getDefaultTimeoutMillis());
+        this.current = next;
+
+        ResultCache cache = getCache();
+        if (cache != null)
+            setCache(new ResultCache(cache.getMaxEntries(), cache.getMaxEntryChars()));
+    }
+
+    /**
+     * Reload the dictionary file, in a background thread, every time it changes
+     *
+     * @param dictionary
+     * @throws IOException
+     */
+    public synchronized void watch(File dictionary) throws IOException {
+        stopWatching();
+
+        Path file = dictionary.toPath().toAbsolutePath();
+        WatchService service = file.getFileSystem().newWatchService();
+        file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.watchService = service;
+
+        Thread watcher = new Thread(() -> watchLoop(service, file), "phonespell-dictionary-watch");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Stop reloading the watched dictionary file
+     *
+     * @throws IOException
+     */
+    public synchronized void stopWatching() throws IOException {
+        if (this.watchService != null)
+            this.watchService.close();
+        this.watchService = null;
+    }
+
+    /**
+     * Wait for changes of the file, reloading it once they settle down
+     *
+     * @param service
+     * @param file
+     */
+    private void watchLoop(WatchService service, Path file) {
+        try {
+            while (true) {
+                if (!changed(service.take(), file))
+                    continue;
+
+                //a file is usually written in several steps, reload only once it is quiet
+                for (WatchKey key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS); key != null; key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS))
+                    changed(key, file);
+
+                try {
+                    reload(file.toFile());
+                } catch (RuntimeException e) {
+                    //keep the current dictionary
+                    System.err.println("Error trying to reload the dictionary " + file + ": " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            //not watching anymore
+        }
+    }
+
+    /**
+     * @param key
+     * @param file
+     * @return if some event of the key is about the file
+     */
+    private static boolean changed(WatchKey key, Path file) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents())
+            if (file.getFileName().equals(event.context()))
+                changed = true;
+
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * @return the matcher of the current dictionary
+     */
+    public PhoneNumberMatcher getCurrent() {
+        return this.current;
+    }
+
+    @Override
+    public List<String> topK(String phone, int k, SpellingScorer scorer) {
+        return this.current.topK(phone, k, scorer);
+    }
+
+    @Override
+    public BigInteger count(String phone) {
+        return this.current.count(phone);
+    }
+
+    @Override
+    public BigInteger count(String phone, SearchControl control) {
+        return this.current.count(phone, control);
+    }
+
+    @Override
+    public SearchStatus page(String phone, long offset, int limit, WordConsumer consumer) {
+        return this.current.page(phone, offset, limit, consumer);
+    }
+
+    @Override
+    public Iterator<String> iterator(String phone) {
+        return this.current.iterator(phone);
+    }
+
+    @Override
+    public VanityAutomaton getSpotter() {
+        return this.current.getSpotter();
+    }
+
+    @Override
+    public int getFrequency(String word) {
+        return this.current.getFrequency(word);
+    }
+
+    @Override
+    public Map<String, Integer> getFrequencies() {
+        return this.current.getFrequencies();
+    }
+
+    @Override
+    public Trie getTrie() {
+        return this.current.getTrie();
+    }
+
+    @Override
+    public SearchStats enableStats() {
+        SearchStats searchStats = super.enableStats();
+        this.current.setStats(searchStats);
+        return searchStats;
+    }
+
+    /**
+     * The limits of this matcher, and of the current one for the calls it answers directly, like the pages
+     *
+     * @param maxResults    combinations given per call, Long.MAX_VALUE for no limit
+     * @param timeoutMillis time per call, Long.MAX_VALUE for no limit
+     */
+    @Override
+    public synchronized void setDefaultLimits(long maxResults, long timeoutMillis) {
+        super.setDefaultLimits(maxResults, timeoutMillis);
+        if (this.current != null)
+            this.current.setDefaultLimits(maxResults, timeoutMillis);
+    }
+
+    @Override
+    public void setStats(SearchStats stats) {
+        super.setStats(stats);
+        if (this.current != null)
+            this.current.setStats(stats);
+    }
+}
@@ -0,0 +1,214 @@
+package com.phonekeypad.business;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Size bounded LRU cache of the combinations of clean phone numbers. Thread safe class!
+ * <p/>
+ * Every entry keeps all combinations of a number in a single char array, with the end of every combination,
+ * instead of one String per combination. Numbers with more than maxEntryChars chars of combinations are
+ * not cached, so a few huge outputs never flood the cache: at most maxEntries * maxEntryChars chars
+ * (and an int per combination) are kept.
+ * <p/>
+ * The searches run outside the lock: two threads missing the same number both search it.
+ */
+public class ResultCache {
+    public static final int DEFAULT_MAX_ENTRY_CHARS = 1 << 16;
+
+    private final int maxEntries;
+    private final int maxEntryChars;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    /**
+     * Cache with the default limit of chars per entry
+     *
+     * @param maxEntries
+     */
+    public ResultCache(int maxEntries) {
+        this(maxEntries, DEFAULT_MAX_ENTRY_CHARS);
+    }
+
+    /**
+     * @param maxEntries    numbers kept, the least recently used is evicted
+     * @param maxEntryChars chars of all combinations of a number above which it is not cached
+     */
+    public ResultCache(int maxEntries, int maxEntryChars) {
+        if (maxEntries < 1 || maxEntryChars < 1)
+            throw new IllegalArgumentException("The cache limits must be positive!");
+
+        this.maxEntries = maxEntries;
+        this.maxEntryChars = maxEntryChars;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ResultCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Replay the cached combinations of the number, or search and cache them
+     *
+     * @param cleanPhone
+     * @param consumer
+     * @param search     the search of a clean number, called on a miss. A search cut short by an exception is not cached.
+     */
+    public void spell(String cleanPhone, WordConsumer consumer, BiConsumer<String, WordConsumer> search) {
+        Entry entry = get(cleanPhone);
+        if (entry != null) {
+            this.hits.increment();
+            entry.replay(consumer);
+            return;
+        }
+
+        this.misses.increment();
+        Recorder recorder = new Recorder(consumer);
+        search.accept(cleanPhone, recorder);
+
+        if (recorder.overflow)
+            this.skipped.increment();
+        else
+            put(cleanPhone, recorder.toEntry());
+    }
+
+    private synchronized Entry get(String cleanPhone) {
+        return this.entries.get(cleanPhone);
+    }
+
+    private synchronized void put(String cleanPhone, Entry entry) {
+        this.entries.put(cleanPhone, entry);
+    }
+
+    /**
+     * @return numbers currently cached
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Remove every cached number, keeping the counters
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return searched numbers not cached, for having too many combinations
+     */
+    public long getSkipped() {
+        return this.skipped.sum();
+    }
+
+    public int getMaxEntries() {
+        return this.maxEntries;
+    }
+
+    public int getMaxEntryChars() {
+        return this.maxEntryChars;
+    }
+
+    /**
+     * @return a human readable summary of the counters
+     */
+    public String summary() {
+        return MessageFormat.format("cache hits: {0}, misses: {1}, skipped: {2}, size: {3}", getHits(), getMisses(), getSkipped(), size());
+    }
+
+    /**
+     * All combinations of a number, one after another
+     */
+    private static final class Entry {
+        private final char[] chars;
+        private final int[] ends;
+        private final int maxLength;
+
+        private Entry(char[] chars, int[] ends, int maxLength) {
+            this.chars = chars;
+            this.ends = ends;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * Call the consumer with every combination, from the start of a reused buffer
+         *
+         * @param consumer
+         */
+        private void replay(WordConsumer consumer) {
+            char[] word = new char[this.maxLength];
+            int start = 0;
+            for (int end : this.ends) {
+                System.arraycopy(this.chars, start, word, 0, end - start);
+                consumer.accept(word, end - start);
+                start = end;
+            }
+        }
+    }
+
+    /**
+     * Forward every combination, copying it while within the entry limit
+     */
+    private final class Recorder implements WordConsumer {
+        private final WordConsumer consumer;
+        private char[] chars = new char[64];
+        private int[] ends = new int[8];
+        private int count;
+        private int length;
+        private int maxLength;
+        private boolean overflow;
+
+        private Recorder(WordConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void accept(char[] word, int wordLength) {
+            if (!this.overflow) {
+                if (this.length + wordLength > ResultCache.this.maxEntryChars) {
+                    //too big to cache, stop copying
+                    this.overflow = true;
+                    this.chars = null;
+                    this.ends = null;
+                } else {
+                    if (this.length + wordLength > this.chars.length)
+                        this.chars = Arrays.copyOf(this.chars, Math.min(Math.max(this.chars.length * 2, this.length + wordLength), ResultCache.this.maxEntryChars));
+                    if (this.count == this.ends.length)
+                        this.ends = Arrays.copyOf(this.ends, this.count * 2);
+
+                    System.arraycopy(word, 0, this.chars, this.length, wordLength);
+                    this.length += wordLength;
+                    this.ends[this.count++] = this.length;
+                    this.maxLength = Math.max(this.maxLength, wordLength);
+                }
+            }
+
+            this.consumer.accept(word, wordLength);
+        }
+
+        @Override
+        public void checkpoint() {
+            this.consumer.checkpoint();
+        }
+
+        private Entry toEntry() {
+            return new Entry(Arrays.copyOf(this.chars, this.length), Arrays.copyOf(this.ends, this.count), this.maxLength);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.phonekeypad.business;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per call controls of a search: maximum results, a wall clock timeout and cancellation. Thread safe class!
+ * <p/>
+ * One control is meant for one call. The search checks it through the consumer wrapped by control(): the limits
+ * at every combination, and the deadline and cancel flag also once every CHECK_INTERVAL steps of the recursion,
+ * so a search without results is still stopped, at the cost of a counter increment per step.
+ * A stopped search unwinds its recursion at once, with a preallocated exception and no stack trace.
+ */
+public class SearchControl {
+    private static final int CHECK_INTERVAL = 1 << 10;
+    private static final StoppedException STOPPED = new StoppedException();
+
+    private long maxResults = Long.MAX_VALUE;
+    private long timeoutNanos = Long.MAX_VALUE;
+    private volatile boolean cancelled;
+    private volatile SearchStatus status = SearchStatus.COMPLETED;
+
+    /**
+     * @param maxResults combinations to give, the search is cut short at the next one
+     * @return this control
+     */
+    public SearchControl setMaxResults(long maxResults) {
+        if (maxResults < 0)
+            throw new IllegalArgumentException("The maximum results can not be negative!");
+        this.maxResults = maxResults;
+        return this;
+    }
+
+    /**
+     * @param timeout time from the start of the search, the search is cut short after it
+     * @param unit
+     * @return this control
+     */
+    public SearchControl setTimeout(long timeout, TimeUnit unit) {
+        if (timeout < 0)
+            throw new IllegalArgumentException("The timeout can not be negative!");
+        this.timeoutNanos = unit.toNanos(timeout);
+        return this;
+    }
+
+    /**
+     * Cut the search short, from any thread. A search not started yet stops at its first step.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    public long getMaxResults() {
+        return this.maxResults;
+    }
+
+    /**
+     * @return how the search ended, COMPLETED while it runs
+     */
+    public SearchStatus getStatus() {
+        return this.status;
+    }
+
+    /**
+     * Start the controlled search: the deadline counts from now
+     *
+     * @param consumer
+     * @return the consumer to give to the search
+     */
+    WordConsumer control(WordConsumer consumer) {
+        this.status = SearchStatus.COMPLETED;
+        return new ControlledConsumer(consumer);
+    }
+
+    /**
+     * @param e thrown by the search
+     * @return if the search was stopped by this control
+     */
+    static boolean isStop(Throwable e) {
+        return e == STOPPED || e != null && e.getCause() == STOPPED;
+    }
+
+    /**
+     * Counts the results and steps of a search, stopping it once over a limit
+     */
+    private final class ControlledConsumer implements WordConsumer {
+        private final WordConsumer consumer;
+        private final long start = System.nanoTime();
+        private long results;
+        private int steps = CHECK_INTERVAL - 1;
+
+        private ControlledConsumer(WordConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void accept(char[] word, int length) {
+            if (++this.results > SearchControl.this.maxResults)
+                stop(SearchStatus.RESULT_LIMIT);
+            check();
+            this.consumer.accept(word, length);
+        }
+
+        @Override
+        public void checkpoint() {
+            //racy when forked, a lost increment only delays the next check
+            if ((++this.steps & (CHECK_INTERVAL - 1)) == 0)
+                check();
+            this.consumer.checkpoint();
+        }
+
+        private void check() {
+            if (SearchControl.this.cancelled)
+                stop(SearchStatus.CANCELLED);
+            if (System.nanoTime() - this.start > SearchControl.this.timeoutNanos)
+                stop(SearchStatus.DEADLINE);
+        }
+
+        private void stop(SearchStatus reason) {
+            //the first reason wins, forked tasks may still be stopping
+            if (SearchControl.this.status == SearchStatus.COMPLETED)
+                SearchControl.this.status = reason;
+            throw STOPPED;
+        }
+    }
+
+    /**
+     * Unwinds a stopped search. Has no public constructor, so fork join tasks rethrow this same instance.
+     */
+    private static final class StoppedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private StoppedException() {
+            super("Search stopped", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.phonekeypad.business;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.text.MessageFormat;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Search counters and per call latency histogram of a matcher. Thread safe class!
+ * <p/>
+ * The counters are LongAdders, so concurrent searches (batch workers, fork/join tasks) don't contend on them.
+ * The latency histogram has one bucket per power of two nanoseconds, so the percentiles are upper bounds,
+ * at most twice the real value.
+ */
+public class SearchStats implements SearchStatsMBean {
+    public static final String OBJECT_NAME = "com.phonekeypad:type=SearchStats";
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder results = new LongAdder();
+    private final LongAdder nodesVisited = new LongAdder();
+    private final LongAdder skipBranches = new LongAdder();
+    private final LongAdder deadEnds = new LongAdder();
+    private final LongAdder cutShort = new LongAdder();
+    private final AtomicLongArray latencies = new AtomicLongArray(BUCKETS);
+    private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+
+    /**
+     * A trie node was visited by the search
+     */
+    public void nodeVisited() {
+        this.nodesVisited.increment();
+    }
+
+    /**
+     * A skip digit branch was taken
+     */
+    public void skipBranch() {
+        this.skipBranches.increment();
+    }
+
+    /**
+     * A branch ended without any word combination
+     */
+    public void deadEnd() {
+        this.deadEnds.increment();
+    }
+
+    /**
+     * A search was cut short by its SearchControl
+     */
+    public void callCutShort() {
+        this.cutShort.increment();
+    }
+
+    /**
+     * Record a finished search
+     *
+     * @param nanos latency of the call
+     */
+    public void callFinished(long nanos) {
+        this.calls.increment();
+        this.latencies.incrementAndGet(bucket(nanos));
+        this.maxLatency.accumulate(nanos);
+    }
+
+    /**
+     * Wrap a consumer, counting every result emitted
+     *
+     * @param consumer
+     * @return
+     */
+    public WordConsumer counting(WordConsumer consumer) {
+        return new CountingConsumer(consumer);
+    }
+
+    @Override
+    public long getCalls() {
+        return this.calls.sum();
+    }
+
+    @Override
+    public long getResults() {
+        return this.results.sum();
+    }
+
+    @Override
+    public long getNodesVisited() {
+        return this.nodesVisited.sum();
+    }
+
+    @Override
+    public long getSkipBranches() {
+        return this.skipBranches.sum();
+    }
+
+    @Override
+    public long getDeadEnds() {
+        return this.deadEnds.sum();
+    }
+
+    @Override
+    public long getCutShort() {
+        return this.cutShort.sum();
+    }
+
+    @Override
+    public long getLatencyP50Micros() {
+        return getLatencyPercentileMicros(0.50);
+    }
+
+    @Override
+    public long getLatencyP90Micros() {
+        return getLatencyPercentileMicros(0.90);
+    }
+
+    @Override
+    public long getLatencyP99Micros() {
+        return getLatencyPercentileMicros(0.99);
+    }
+
+    @Override
+    public long getMaxLatencyMicros() {
+        return this.maxLatency.get() / 1000;
+    }
+
+    /**
+     * @return the number of calls of every bucket: bucket i counts the latencies from 2^i to 2^(i+1) nanoseconds
+     */
+    @Override
+    public long[] getLatencyHistogram() {
+        long[] histogram = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+            histogram[i] = this.latencies.get(i);
+        return histogram;
+    }
+
+    /**
+     * The latency below which the given fraction of the calls finished
+     *
+     * @param fraction between 0 and 1
+     * @return upper bound of the bucket of the percentile, in microseconds, or 0 without calls
+     */
+    public long getLatencyPercentileMicros(double fraction) {
+        long[] histogram = getLatencyHistogram();
+        long total = 0;
+        for (long count : histogram)
+            total += count;
+
+        if (total == 0)
+            return 0;
+
+        long rank = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= rank && seen > 0)
+                return Math.min(upperBound(i), this.maxLatency.get()) / 1000;
+        }
+        return this.maxLatency.get() / 1000;
+    }
+
+    @Override
+    public void reset() {
+        this.calls.reset();
+        this.results.reset();
+        this.nodesVisited.reset();
+        this.skipBranches.reset();
+        this.deadEnds.reset();
+        this.cutShort.reset();
+        for (int i = 0; i < BUCKETS; i++)
+            this.latencies.set(i, 0);
+        this.maxLatency.reset();
+    }
+
+    /**
+     * Register this stats in the platform MBean server, replacing a previous registration of the same name
+     *
+     * @param name object name, like SearchStats.OBJECT_NAME
+     */
+    public void register(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+
+            if (server.isRegistered(objectName))
+                server.unregisterMBean(objectName);
+
+            server.registerMBean(this, objectName);
+
+        } catch (JMException e) {
+            throw new IllegalArgumentException(MessageFormat.format("Error trying to register the MBean {0}!", name), e);
+        }
+    }
+
+    /**
+     * @return a human readable summary of the counters and latencies
+     */
+    public String summary() {
+        return MessageFormat.format("calls: {0}, results: {1}, nodes visited: {2}, skip branches: {3}, dead ends: {4}, cut short: {5}\n"
+                        + "latency (us): p50 <= {6}, p90 <= {7}, p99 <= {8}, max {9}",
+                getCalls(), getResults(), getNodesVisited(), getSkipBranches(), getDeadEnds(), getCutShort(),
+                getLatencyP50Micros(), getLatencyP90Micros(), getLatencyP99Micros(), getMaxLatencyMicros());
+    }
+
+    private static int bucket(long nanos) {
+        return 63 - Long.numberOfLeadingZeros(Math.max(nanos, 1));
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket >= 62 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+    }
+
+    /**
+     * Counts every result, forwarding the results and the checkpoints
+     */
+    private final class CountingConsumer implements WordConsumer {
+        private final WordConsumer consumer;
+
+        private CountingConsumer(WordConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void accept(char[] word, int length) {
+            SearchStats.this.results.increment();
+            this.consumer.accept(word, length);
+        }
+
+        @Override
+        public void checkpoint() {
+            this.consumer.checkpoint();
+        }
+    }
+}
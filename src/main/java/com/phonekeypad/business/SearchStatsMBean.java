@@ -0,0 +1,31 @@
+package com.phonekeypad.business;
+
+/**
+ * JMX view of the SearchStats of a matcher
+ */
+public interface SearchStatsMBean {
+
+    long getCalls();
+
+    long getResults();
+
+    long getNodesVisited();
+
+    long getSkipBranches();
+
+    long getDeadEnds();
+
+    long getCutShort();
+
+    long getLatencyP50Micros();
+
+    long getLatencyP90Micros();
+
+    long getLatencyP99Micros();
+
+    long getMaxLatencyMicros();
+
+    long[] getLatencyHistogram();
+
+    void reset();
+}
@@ -0,0 +1,30 @@
+package com.phonekeypad.business;
+
+/**
+ * How a search call ended
+ */
+public enum SearchStatus {
+    /**
+     * All combinations were found
+     */
+    COMPLETED,
+    /**
+     * Cut short, there were more combinations than the maximum results
+     */
+    RESULT_LIMIT,
+    /**
+     * Cut short, the deadline passed
+     */
+    DEADLINE,
+    /**
+     * Cut short, cancelled by another thread
+     */
+    CANCELLED;
+
+    /**
+     * @return if the search was cut short, and more combinations may exist
+     */
+    public boolean isCutShort() {
+        return this != COMPLETED;
+    }
+}
@@ -0,0 +1,130 @@
+package com.phonekeypad.business;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exact count and random access pages of the combinations of one clean phone number. Not thread safe, one per call!
+ * <p/>
+ * Walks the SpellingGraph of the number, counting once the combinations from every state to the end: the sum of
+ * the counts of its edges. Counting is linear on the states, no combination String is ever built.
+ * <p/>
+ * The edges keep the order of the full search, so the counts rank every combination: a page skips whole edges
+ * while their counts fit in the offset, and only the combinations of the page are enumerated.
+ */
+public class SpellingCounter {
+    private final SpellingGraph graph;
+    private final BigInteger[] counts;
+
+    private BigInteger skip;
+    private long remaining;
+
+    /**
+     * @param pm    matcher with the dictionary and keypad
+     * @param phone clean phone number
+     */
+    public SpellingCounter(PhoneNumberMatcher pm, String phone) {
+        this(pm, phone, null);
+    }
+
+    /**
+     * @param pm       matcher with the dictionary and keypad
+     * @param phone    clean phone number
+     * @param consumer checkpoint called once per solved state, so a SearchControl bounds the solve, or null
+     */
+    public SpellingCounter(PhoneNumberMatcher pm, String phone, WordConsumer consumer) {
+        this.graph = SpellingGraphBuilder.build(pm, phone, null, consumer);
+        this.counts = new BigInteger[phone.length() * 2];
+    }
+
+    /**
+     * @return the exact number of combinations of the phone number
+     */
+    public BigInteger count() {
+        return this.graph.isEmpty() ? BigInteger.ZERO : count(this.graph.start());
+    }
+
+    /**
+     * @param offset combinations to skip, in the order of the full search
+     * @param limit  most combinations to give
+     * @return the combinations from the offset on, in the order of the full search
+     */
+    public List<String> page(long offset, long limit) {
+        List<String> page = new ArrayList<>();
+        page(offset, limit, WordConsumer.of(page::add));
+        return page;
+    }
+
+    /**
+     * Call the consumer with the combinations of the page, straight from the walk buffer
+     *
+     * @param offset   combinations to skip, in the order of the full search
+     * @param limit    most combinations to give
+     * @param consumer
+     */
+    public void page(long offset, long limit, WordConsumer consumer) {
+        if (limit < 1 || BigInteger.valueOf(offset).compareTo(count()) >= 0)
+            return;
+
+        this.skip = BigInteger.valueOf(offset);
+        this.remaining = limit;
+        walk(this.graph.start(), new char[this.graph.getPhoneLength() * 2], 0, consumer);
+    }
+
+    /**
+     * Walk the paths from a state, skipping whole edges until the offset is reached, and stopping once the page is full
+     *
+     * @param state
+     * @param word
+     * @param letterIndex
+     * @param consumer
+     */
+    private void walk(int state, char[] word, int letterIndex, WordConsumer consumer) {
+        consumer.checkpoint();
+        if (letterIndex > 0)
+            word[letterIndex++] = '-';
+
+        for (int e = 0; e < this.graph.edgeCount(state) && this.remaining > 0; e++) {
+            int target = this.graph.target(state, e);
+            BigInteger edgeCount = target == SpellingGraph.END ? BigInteger.ONE : count(target);
+
+            //every combination of the edge is before the page
+            if (this.skip.compareTo(edgeCount) >= 0) {
+                this.skip = this.skip.subtract(edgeCount);
+                continue;
+            }
+
+            char[] token = this.graph.token(state, e);
+            System.arraycopy(token, 0, word, letterIndex, token.length);
+
+            if (target != SpellingGraph.END) {
+                walk(target, word, letterIndex + token.length, consumer);
+            } else {
+                //the skip is 0 here, the edge is the first combination of the page
+                this.remaining--;
+                consumer.accept(word, letterIndex + token.length);
+            }
+        }
+    }
+
+    /**
+     * Count the combinations of a state once, after the states it leads to
+     *
+     * @param state a live state of the graph
+     * @return the number of combinations from the state to the end
+     */
+    private BigInteger count(int state) {
+        if (this.counts[state] != null)
+            return this.counts[state];
+
+        BigInteger count = BigInteger.ZERO;
+        for (int e = 0; e < this.graph.edgeCount(state); e++) {
+            int target = this.graph.target(state, e);
+            count = count.add(target == SpellingGraph.END ? BigInteger.ONE : count(target));
+        }
+
+        this.counts[state] = count;
+        return count;
+    }
+}
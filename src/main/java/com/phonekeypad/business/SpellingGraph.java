@@ -0,0 +1,149 @@
+package com.phonekeypad.business;
+
+/**
+ * All word combinations of one phone number, as a directed acyclic graph.
+ * <p/>
+ * A state is a search sub-problem: the digit index where the next word starts, and if one digit may be
+ * skipped there. Its edges are tokens (a word, a skipped digit or a run of digits without letters, like 00)
+ * leading to the state of the rest of the number, or to END. Every state is solved once and shared by all
+ * the prefixes reaching it. States without any combination have no edges, and no edge leads to them.
+ * <p/>
+ * Every combination is a path from the start state to END, its tokens separated by a dash.
+ */
+public class SpellingGraph {
+    public static final int END = -1;
+
+    private static final char[][] NO_TOKENS = new char[0][];
+    private static final int[] NO_TARGETS = new int[0];
+
+    private final int phoneLength;
+    private final char[][][] tokens;
+    private final int[][] targets;
+
+    /**
+     * Graph without edges, for a phone number of the given length
+     *
+     * @param phoneLength
+     */
+    SpellingGraph(int phoneLength) {
+        this.phoneLength = phoneLength;
+        this.tokens = new char[phoneLength * 2][][];
+        this.targets = new int[phoneLength * 2][];
+    }
+
+    /**
+     * The state of a word starting at the digit index
+     *
+     * @param digitIndex
+     * @param allowSkip
+     * @return
+     */
+    public static int state(int digitIndex, boolean allowSkip) {
+        return digitIndex * 2 + (allowSkip ? 1 : 0);
+    }
+
+    /**
+     * @return the digit index of a state
+     */
+    public static int digitIndex(int state) {
+        return state / 2;
+    }
+
+    /**
+     * @return the state of the whole phone number, at the first digit and allowing skips
+     */
+    public int start() {
+        return state(0, true);
+    }
+
+    /**
+     * @return if the phone number has no combination at all
+     */
+    public boolean isEmpty() {
+        return this.phoneLength == 0 || isDead(start());
+    }
+
+    /**
+     * Set the edges of a state, that becomes solved
+     *
+     * @param state
+     * @param tokens
+     * @param targets
+     */
+    void setEdges(int state, char[][] tokens, int[] targets) {
+        this.tokens[state] = tokens.length == 0 ? NO_TOKENS : tokens;
+        this.targets[state] = targets.length == 0 ? NO_TARGETS : targets;
+    }
+
+    /**
+     * @param state
+     * @return if the edges of the state were already set
+     */
+    public boolean isSolved(int state) {
+        return this.tokens[state] != null;
+    }
+
+    /**
+     * @param state
+     * @return if the state has no combination
+     */
+    public boolean isDead(int state) {
+        return this.tokens[state].length == 0;
+    }
+
+    public int edgeCount(int state) {
+        return this.tokens[state].length;
+    }
+
+    public char[] token(int state, int edge) {
+        return this.tokens[state][edge];
+    }
+
+    public int target(int state, int edge) {
+        return this.targets[state][edge];
+    }
+
+    /**
+     * @return the length of the phone number
+     */
+    public int getPhoneLength() {
+        return this.phoneLength;
+    }
+
+    /**
+     * Call the consumer for every combination, walking every path of the graph, with a checkpoint on every edge
+     *
+     * @param consumer
+     */
+    public void forEach(WordConsumer consumer) {
+        if (!isEmpty())
+            forEach(start(), new char[this.phoneLength * 2], 0, consumer);
+    }
+
+    /**
+     * Walk the paths from a state, appending its tokens to the word
+     *
+     * @param state
+     * @param word
+     * @param letterIndex
+     * @param consumer
+     */
+    protected void forEach(int state, char[] word, int letterIndex, WordConsumer consumer) {
+        char[][] stateTokens = this.tokens[state];
+        int[] stateTargets = this.targets[state];
+
+        if (letterIndex > 0)
+            word[letterIndex++] = '-';
+
+        for (int e = 0; e < stateTokens.length; e++) {
+            consumer.checkpoint();
+            char[] token = stateTokens[e];
+            System.arraycopy(token, 0, word, letterIndex, token.length);
+
+            if (stateTargets[e] == END)
+                consumer.accept(word, letterIndex + token.length);
+            else
+                forEach(stateTargets[e], word, letterIndex + token.length, consumer);
+        }
+    }
+}
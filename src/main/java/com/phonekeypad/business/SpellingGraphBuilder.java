@@ -0,0 +1,166 @@
+package com.phonekeypad.business;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Solves every state of one clean phone number into a SpellingGraph. Not thread safe, one per call!
+ * <p/>
+ * The single place of the word rules outside the recursive search, the same rules of startWord and
+ * startWordBranches: a run of digits without letters is a single token, every word spelled from the digit
+ * leads to the next word, and one digit may be skipped unless the previous token was a skipped digit.
+ * Every engine walking a SpellingGraph (the memoized search, the iterator, the ranked search and the counts)
+ * gets its edges from here, in the order of the full search.
+ */
+final class SpellingGraphBuilder {
+    private final PhoneNumberMatcher pm;
+    private final String phone;
+    private final SearchStats stats;
+    private final WordConsumer consumer;
+    private final SpellingGraph graph;
+    private final char[][][] words;
+
+    /**
+     * @param pm       matcher with the dictionary and keypad
+     * @param phone    clean phone number
+     * @param stats    counters of skip branches and dead ends, or null
+     * @param consumer checkpoint called once per solved state, or null
+     */
+    SpellingGraphBuilder(PhoneNumberMatcher pm, String phone, SearchStats stats, WordConsumer consumer) {
+        this.pm = pm;
+        this.phone = phone;
+        this.stats = stats;
+        this.consumer = consumer;
+        this.graph = new SpellingGraph(phone.length());
+        this.words = new char[phone.length()][][];
+    }
+
+    /**
+     * Solve all states of a clean phone number
+     *
+     * @param pm       matcher with the dictionary and keypad
+     * @param phone    clean phone number
+     * @param stats    counters of skip branches and dead ends, or null
+     * @param consumer checkpoint called once per solved state, so the limits of a search also bound the solve, or null
+     * @return the graph, with no dead state reachable from its start
+     */
+    static SpellingGraph build(PhoneNumberMatcher pm, String phone, SearchStats stats, WordConsumer consumer) {
+        SpellingGraphBuilder builder = new SpellingGraphBuilder(pm, phone, stats, consumer);
+        if (!phone.isEmpty())
+            builder.solve(builder.graph.start());
+        return builder.graph;
+    }
+
+    /**
+     * Set the edges of one state, without solving the states they lead to: some may turn out to be dead
+     *
+     * @param state
+     * @param unpruned graph receiving the edges
+     */
+    void expand(int state, SpellingGraph unpruned) {
+        List<char[]> tokens = new ArrayList<>();
+        List<Integer> targets = new ArrayList<>();
+        expand(state, tokens, targets);
+        unpruned.setEdges(state, tokens.toArray(new char[tokens.size()][]), toArray(targets));
+    }
+
+    /**
+     * Solve a state once, after the states it leads to, dropping the edges to dead states
+     *
+     * @param state
+     */
+    private void solve(int state) {
+        if (this.graph.isSolved(state))
+            return;
+        if (this.consumer != null)
+            this.consumer.checkpoint();
+
+        List<char[]> tokens = new ArrayList<>();
+        List<Integer> targets = new ArrayList<>();
+        expand(state, tokens, targets);
+
+        List<char[]> liveTokens = new ArrayList<>(tokens.size());
+        List<Integer> liveTargets = new ArrayList<>(targets.size());
+        for (int e = 0; e < tokens.size(); e++) {
+            int target = targets.get(e);
+            if (target != SpellingGraph.END) {
+                solve(target);
+                if (this.graph.isDead(target)) {
+                    if (this.stats != null)
+                        this.stats.deadEnd();
+                    continue;
+                }
+            }
+            liveTokens.add(tokens.get(e));
+            liveTargets.add(target);
+        }
+
+        this.graph.setEdges(state, liveTokens.toArray(new char[liveTokens.size()][]), toArray(liveTargets));
+    }
+
+    /**
+     * Apply the word rules to a state, in the order of the full search
+     *
+     * @param state
+     * @param tokens
+     * @param targets
+     */
+    private void expand(int state, List<char[]> tokens, List<Integer> targets) {
+        int digitIndex = SpellingGraph.digitIndex(state);
+        boolean allowSkip = state == SpellingGraph.state(digitIndex, true);
+
+        if (this.pm.keypad.letters(this.phone.charAt(digitIndex)) == null) {
+            //digits to ignore, like 1 and 0, are a single token
+            int runEnd = digitIndex + 1;
+            while (runEnd < this.phone.length() && this.pm.keypad.letters(this.phone.charAt(runEnd)) == null)
+                runEnd++;
+
+            addEdge(this.phone.substring(digitIndex, runEnd).toCharArray(), runEnd, allowSkip, tokens, targets);
+
+        } else {
+            //the first branch without skip
+            for (char[] word : wordsAt(digitIndex))
+                addEdge(word, digitIndex + word.length, true, tokens, targets);
+
+            //the second branch, skipping the digit
+            if (allowSkip) {
+                if (this.stats != null)
+                    this.stats.skipBranch();
+                addEdge(new char[]{this.phone.charAt(digitIndex)}, digitIndex + 1, false, tokens, targets);
+            }
+        }
+    }
+
+    /**
+     * Add an edge to the state starting at nextDigit, or to the end
+     *
+     * @param token
+     * @param nextDigit
+     * @param allowSkip
+     * @param tokens
+     * @param targets
+     */
+    private void addEdge(char[] token, int nextDigit, boolean allowSkip, List<char[]> tokens, List<Integer> targets) {
+        tokens.add(token);
+        targets.add(nextDigit < this.phone.length() ? SpellingGraph.state(nextDigit, allowSkip) : SpellingGraph.END);
+    }
+
+    /**
+     * @param digitIndex
+     * @return the words spelled from the digit on, looked up once for both states of the digit
+     */
+    private char[][] wordsAt(int digitIndex) {
+        if (this.words[digitIndex] == null) {
+            List<char[]> found = this.pm.findWords(this.phone, digitIndex);
+            this.words[digitIndex] = found.toArray(new char[found.size()][]);
+        }
+        return this.words[digitIndex];
+    }
+
+    private static int[] toArray(List<Integer> targets) {
+        int[] array = new int[targets.size()];
+        for (int i = 0; i < array.length; i++)
+            array[i] = targets.get(i);
+        return array;
+    }
+}
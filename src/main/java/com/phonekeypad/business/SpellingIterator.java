@@ -0,0 +1,116 @@
+package com.phonekeypad.business;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy, pull based iterator of the word combinations of one clean phone number. Not thread safe, one per call!
+ * <p/>
+ * Walks the states of the SpellingGraph of the number with an explicit stack instead of the call stack: every frame
+ * keeps the edge it will try next, so the walk pauses after each combination and resumes on the next call.
+ * A state is expanded by SpellingGraphBuilder on its first visit only, without solving the states it leads to:
+ * taking the first combinations costs only the steps leading to them. A state left without giving any combination
+ * is dead, and is never entered again. The combinations come in the same order of the full search.
+ */
+public class SpellingIterator implements Iterator<String> {
+    private final SpellingGraphBuilder builder;
+    private final SpellingGraph graph;
+    private final boolean[] live;
+    private final boolean[] dead;
+    private final char[] word;
+
+    private final int[] states;
+    private final int[] letterStarts;
+    private final int[] edges;
+    private int top = -1;
+
+    private String next;
+
+    /**
+     * @param pm    matcher with the dictionary and keypad
+     * @param phone clean phone number
+     */
+    public SpellingIterator(PhoneNumberMatcher pm, String phone) {
+        this.builder = new SpellingGraphBuilder(pm, phone, null, null);
+        this.graph = new SpellingGraph(phone.length());
+        this.live = new boolean[phone.length() * 2];
+        this.dead = new boolean[phone.length() * 2];
+        this.word = new char[phone.length() * 2];
+
+        //every token takes at least one digit, so at most one frame per digit
+        this.states = new int[phone.length()];
+        this.letterStarts = new int[phone.length()];
+        this.edges = new int[phone.length()];
+
+        if (!phone.isEmpty())
+            push(this.graph.start(), 0);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.next == null)
+            this.next = advance();
+        return this.next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        String combination = this.next;
+        this.next = null;
+        return combination;
+    }
+
+    /**
+     * Walk until the next combination
+     *
+     * @return the combination, or null when there are no more
+     */
+    private String advance() {
+        while (this.top >= 0) {
+            int state = this.states[this.top];
+            int edge = this.edges[this.top]++;
+            if (edge == this.graph.edgeCount(state)) {
+                if (!this.live[state])
+                    this.dead[state] = true;
+                this.top--;
+                continue;
+            }
+
+            int target = this.graph.target(state, edge);
+            if (target != SpellingGraph.END && this.dead[target])
+                continue;
+
+            int letterIndex = this.letterStarts[this.top];
+            if (letterIndex > 0)
+                this.word[letterIndex++] = '-';
+
+            char[] token = this.graph.token(state, edge);
+            System.arraycopy(token, 0, this.word, letterIndex, token.length);
+            letterIndex += token.length;
+
+            if (target == SpellingGraph.END) {
+                //every state on the stack leads to this combination
+                for (int frame = 0; frame <= this.top; frame++)
+                    this.live[this.states[frame]] = true;
+                return new String(this.word, 0, letterIndex);
+            }
+
+            push(target, letterIndex);
+        }
+
+        return null;
+    }
+
+    private void push(int state, int letterIndex) {
+        if (!this.graph.isSolved(state))
+            this.builder.expand(state, this.graph);
+
+        this.top++;
+        this.states[this.top] = state;
+        this.letterStarts[this.top] = letterIndex;
+        this.edges[this.top] = 0;
+    }
+}
@@ -0,0 +1,30 @@
+package com.phonekeypad.business;
+
+/**
+ * Score of the tokens of a combination, for the ranked search. The score of a combination is the sum of its tokens.
+ * <p/>
+ * A token is a dictionary word, or digits kept as they are: a skipped digit or a run of digits without letters, like 00.
+ */
+@FunctionalInterface
+public interface SpellingScorer {
+    /**
+     * Frequency given for digits kept as they are
+     */
+    int DIGITS = -1;
+
+    /**
+     * Weighted sum: a kept digit scores -2, a word of n letters scores n * n + ln(1 + frequency).
+     * The square makes one long word beat shorter words over the same digits (4 * 4 > 2 * 2 + 2 * 2), and the log
+     * keeps the frequency a small bonus, mostly deciding between words of the same length.
+     */
+    SpellingScorer DEFAULT = (token, frequency) -> frequency == DIGITS
+            ? -2.0 * token.length
+            : token.length * token.length + Math.log1p(frequency);
+
+    /**
+     * @param token     the chars of the token
+     * @param frequency the dictionary frequency of a word (0 when the dictionary has none), or DIGITS
+     * @return the score of the token, higher is better
+     */
+    double score(char[] token, int frequency);
+}
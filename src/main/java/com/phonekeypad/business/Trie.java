@@ -0,0 +1,118 @@
+package com.phonekeypad.business;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Read only view of a ternary search trie, whose nodes are int indexes from 0 to size() - 1.
+ * <p/>
+ * Implemented by the heap arrays of CompactTrie and by the memory mapped DictionarySnapshot file.
+ */
+public interface Trie {
+    int NIL = -1;
+
+    /**
+     * @return the root node or NIL for an empty trie
+     */
+    int root();
+
+    char chr(int x);
+
+    int left(int x);
+
+    int mid(int x);
+
+    int right(int x);
+
+    boolean finishesAWord(int x);
+
+    /**
+     * @return number of nodes
+     */
+    int size();
+
+    /**
+     * Find the sibling node of the given char, starting at node x
+     *
+     * @param x
+     * @param c
+     * @return the node or NIL
+     */
+    default int find(int x, char c) {
+        while (x != NIL && c != chr(x))
+            x = c < chr(x) ? left(x) : right(x);
+
+        return x;
+    }
+
+    /**
+     * Call the consumer for every word of the trie, in char order
+     *
+     * @param consumer
+     */
+    default void forEachWord(Consumer<String> consumer) {
+        forEachWord(root(), new StringBuilder(), consumer);
+    }
+
+    /**
+     * Call the consumer for every word below the node x
+     *
+     * @param x
+     * @param prefix
+     * @param consumer
+     */
+    default void forEachWord(int x, StringBuilder prefix, Consumer<String> consumer) {
+        if (x == NIL)
+            return;
+
+        forEachWord(left(x), prefix, consumer);
+
+        prefix.append(chr(x));
+        if (finishesAWord(x))
+            consumer.accept(prefix.toString());
+        forEachWord(mid(x), prefix, consumer);
+        prefix.setLength(prefix.length() - 1);
+
+        forEachWord(right(x), prefix, consumer);
+    }
+
+    /**
+     * The deepest node, counting every left, mid and right link from the root.
+     * A balanced trie stays close to the word length times log2 of the alphabet size,
+     * while a trie of sorted words degenerates into long left and right chains.
+     *
+     * @return number of nodes of the longest path, 0 for an empty trie
+     */
+    default int depth() {
+        if (root() == NIL)
+            return 0;
+
+        int maxDepth = 0;
+        int[] nodes = new int[16];
+        int[] depths = new int[16];
+        int top = 0;
+        nodes[top] = root();
+        depths[top++] = 1;
+
+        while (top > 0) {
+            int x = nodes[--top];
+            int depth = depths[top];
+            maxDepth = Math.max(maxDepth, depth);
+
+            if (top + 3 > nodes.length) {
+                nodes = Arrays.copyOf(nodes, nodes.length * 2);
+                depths = Arrays.copyOf(depths, depths.length * 2);
+            }
+
+            for (int link = 0; link < 3; link++) {
+                int child = link == 0 ? left(x) : link == 1 ? mid(x) : right(x);
+                if (child != NIL) {
+                    nodes[top] = child;
+                    depths[top++] = depth + 1;
+                }
+            }
+        }
+
+        return maxDepth;
+    }
+}
@@ -0,0 +1,117 @@
+package com.phonekeypad.business;
+
+/**
+ * Precomputed summaries of every trie level, to prune the search before walking it. Immutable, thread safe class!
+ * <p/>
+ * A trie level is a node with its left and right subtrees: all letters that may follow the same prefix.
+ * For every node, keeps the keypad digits of the letters of its level, and the fewest letters needed,
+ * from that level on, to finish a word. Letters out of the keypad are never matched, and are ignored.
+ * <p/>
+ * Depends on the keypad, so it is built by the matcher when loading the dictionary, not stored in the trie.
+ */
+public class TrieSummary {
+    private static final byte UNREACHABLE = Byte.MAX_VALUE;
+    private static final byte EXPANDED = 1;
+    private static final byte SUMMARIZED = 2;
+
+    private final short[] digitMasks;
+    private final byte[] minLengths;
+
+    /**
+     * Summarize all levels of the trie, from the leaves up
+     *
+     * @param trie
+     * @param keypad
+     */
+    public TrieSummary(Trie trie, Keypad keypad) {
+        int size = trie.size();
+        this.digitMasks = new short[size];
+        this.minLengths = new byte[size];
+
+        if (trie.root() == Trie.NIL)
+            return;
+
+        //post order with no recursion, every node once even when shared by many parents, like in a DawgTrie
+        byte[] states = new byte[size];
+        int[] stack = new int[size * 3 + 1];
+        int top = 0;
+
+        stack[top++] = trie.root();
+        while (top > 0) {
+            int x = stack[top - 1];
+            if (states[x] == SUMMARIZED) {
+                top--;
+            } else if (states[x] == EXPANDED) {
+                top--;
+                summarize(trie, keypad, x);
+                states[x] = SUMMARIZED;
+            } else {
+                states[x] = EXPANDED;
+                for (int link = 0; link < 3; link++) {
+                    int child = link == 0 ? trie.left(x) : link == 1 ? trie.mid(x) : trie.right(x);
+                    if (child != Trie.NIL && states[child] != SUMMARIZED)
+                        stack[top++] = child;
+                }
+            }
+        }
+    }
+
+    /**
+     * Summarize a node, after its children
+     *
+     * @param trie
+     * @param keypad
+     * @param x
+     */
+    private void summarize(Trie trie, Keypad keypad, int x) {
+        int mask = digitMask(trie.left(x)) | digitMask(trie.right(x));
+        int minLength = Math.min(minLength(trie.left(x)), minLength(trie.right(x)));
+
+        char digit = keypad.digitOf(trie.chr(x));
+        if (digit != Keypad.NO_DIGIT) {
+            //saturated below UNREACHABLE, so a very long word still counts as reachable
+            int midLength = minLength(trie.mid(x));
+            int ownLength = trie.finishesAWord(x) ? 1 : midLength == UNREACHABLE ? UNREACHABLE : Math.min(midLength + 1, UNREACHABLE - 1);
+
+            if (ownLength < UNREACHABLE) {
+                mask |= 1 << (digit - '0');
+                minLength = Math.min(minLength, ownLength);
+            }
+        }
+
+        this.digitMasks[x] = (short) mask;
+        this.minLengths[x] = (byte) minLength;
+    }
+
+    /**
+     * @param node a trie level
+     * @return one bit for every digit (bit 0 for '0') that spells a letter of the level
+     */
+    public int digitMask(int node) {
+        return node == Trie.NIL ? 0 : this.digitMasks[node];
+    }
+
+    /**
+     * @param node a trie level
+     * @return fewest letters to finish a word from the level on, or Byte.MAX_VALUE when no word can be spelled
+     */
+    public int minLength(int node) {
+        return node == Trie.NIL ? UNREACHABLE : this.minLengths[node];
+    }
+
+    /**
+     * Check if a word may continue at the trie level with the phone digits from digitIndex on:
+     * the digit must spell a letter of the level, and enough digits must remain to finish a word
+     *
+     * @param node
+     * @param phone
+     * @param digitIndex
+     * @return false if the branch is surely a dead end
+     */
+    public boolean canContinue(int node, String phone, int digitIndex) {
+        char digit = phone.charAt(digitIndex);
+        return digit >= '0' && digit <= '9'
+                && (digitMask(node) & (1 << (digit - '0'))) != 0
+                && minLength(node) <= phone.length() - digitIndex;
+    }
+}
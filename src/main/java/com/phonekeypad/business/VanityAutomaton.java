@@ -0,0 +1,205 @@
+package com.phonekeypad.business;
+
+import java.util.*;
+
+/**
+ * Reverse vanity search: finds, in phone numbers, the digits spelling any of a set of target words.
+ * Immutable, thread safe class!
+ * <p/>
+ * Every target word is encoded to its keypad digits, and all digit strings go into one Aho-Corasick automaton:
+ * a digit trie whose missing transitions are filled through the failure links, so every state has a next state
+ * for every digit. A number is scanned in a single pass, one table lookup per digit, whatever the number of
+ * target words, and every occurrence of every word is found, overlapping ones included.
+ * <p/>
+ * Words with letters out of the keypad can't be spelled and are ignored.
+ */
+public class VanityAutomaton {
+    private static final int DIGITS = 10;
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    private final int[] next;
+    private final int[] depths;
+    private final int[] outputLinks;
+    private final String[][] words;
+    private final int wordCount;
+
+    /**
+     * Called at every occurrence of a target word
+     */
+    @FunctionalInterface
+    public interface MatchConsumer {
+        /**
+         * @param phone  the clean phone number buffer, valid only during the call
+         * @param length length of the number
+         * @param start  index of the first digit spelling the word
+         * @param word   the normalized target word
+         */
+        void accept(char[] phone, int length, int start, String word);
+    }
+
+    /**
+     * Encode the words and build the automaton
+     *
+     * @param targetWords words to find, normalized like the dictionary words
+     * @param keypad
+     */
+    public VanityAutomaton(Collection<String> targetWords, Keypad keypad) {
+        int[] trie = new int[DIGITS * 16];
+        int[] depth = new int[16];
+        Map<Integer, SortedSet<String>> stateWords = new HashMap<>();
+        int states = 1;
+        Arrays.fill(trie, NONE);
+
+        //the digit trie of all encoded words
+        for (String targetWord : targetWords) {
+            String word = PhoneNumberMatcher.normalizeWord(targetWord);
+            char[] digits = encode(word, keypad);
+            if (digits == null)
+                continue;
+
+            int state = ROOT;
+            for (char digit : digits) {
+                int transition = state * DIGITS + digit - '0';
+                if (trie[transition] == NONE) {
+                    if (states == depth.length) {
+                        depth = Arrays.copyOf(depth, states * 2);
+                        trie = Arrays.copyOf(trie, states * 2 * DIGITS);
+                        Arrays.fill(trie, states * DIGITS, trie.length, NONE);
+                    }
+                    depth[states] = depth[state] + 1;
+                    trie[transition] = states++;
+                }
+                state = trie[transition];
+            }
+            stateWords.computeIfAbsent(state, s -> new TreeSet<>()).add(word);
+        }
+
+        this.next = Arrays.copyOf(trie, states * DIGITS);
+        this.depths = Arrays.copyOf(depth, states);
+        this.outputLinks = new int[states];
+        this.words = new String[states][];
+        for (Map.Entry<Integer, SortedSet<String>> entry : stateWords.entrySet())
+            this.words[entry.getKey()] = entry.getValue().toArray(new String[0]);
+        this.wordCount = stateWords.values().stream().mapToInt(Set::size).sum();
+
+        linkFailures(states);
+    }
+
+    /**
+     * Breadth first, fill every missing transition with the transition of the failure state,
+     * and link every state to the nearest state of its failure chain finishing some word
+     *
+     * @param states
+     */
+    private void linkFailures(int states) {
+        int[] failures = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+
+        this.outputLinks[ROOT] = NONE;
+        for (int d = 0; d < DIGITS; d++) {
+            int child = this.next[ROOT * DIGITS + d];
+            if (child == NONE) {
+                this.next[ROOT * DIGITS + d] = ROOT;
+            } else {
+                failures[child] = ROOT;
+                this.outputLinks[child] = NONE;
+                queue[tail++] = child;
+            }
+        }
+
+        while (head < tail) {
+            int state = queue[head++];
+            for (int d = 0; d < DIGITS; d++) {
+                int child = this.next[state * DIGITS + d];
+                int fallback = this.next[failures[state] * DIGITS + d];
+                if (child == NONE) {
+                    this.next[state * DIGITS + d] = fallback;
+                } else {
+                    failures[child] = fallback;
+                    this.outputLinks[child] = this.words[fallback] != null ? fallback : this.outputLinks[fallback];
+                    queue[tail++] = child;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param word
+     * @param keypad
+     * @return the keypad digits of the word, or null when some letter has no digit
+     */
+    private static char[] encode(String word, Keypad keypad) {
+        if (word.isEmpty())
+            return null;
+
+        char[] digits = new char[word.length()];
+        for (int i = 0; i < digits.length; i++) {
+            digits[i] = keypad.digitOf(word.charAt(i));
+            if (digits[i] < '0' || digits[i] > '9')
+                return null;
+        }
+        return digits;
+    }
+
+    /**
+     * Find every occurrence of the target words in a clean phone number, in a single pass
+     *
+     * @param phone    clean phone number, digits and dots
+     * @param length   length of the number
+     * @param consumer called for every occurrence, by end position and then by word
+     * @return the number of occurrences
+     */
+    public int scan(char[] phone, int length, MatchConsumer consumer) {
+        int found = 0;
+        int state = ROOT;
+
+        for (int i = 0; i < length; i++) {
+            char c = phone[i];
+            //no word spells a dot, restart
+            state = c >= '0' && c <= '9' ? this.next[state * DIGITS + c - '0'] : ROOT;
+
+            for (int t = this.words[state] != null ? state : this.outputLinks[state]; t != NONE; t = this.outputLinks[t])
+                for (String word : this.words[t]) {
+                    consumer.accept(phone, length, i + 1 - this.depths[t], word);
+                    found++;
+                }
+        }
+        return found;
+    }
+
+    /**
+     * The phone number with the word in place of its digits, dash separated, like 1800-FLOWERS
+     *
+     * @param phone
+     * @param length
+     * @param start
+     * @param word
+     * @return
+     */
+    public static String spelling(char[] phone, int length, int start, String word) {
+        StringBuilder sb = new StringBuilder(length + 2);
+        if (start > 0)
+            sb.append(phone, 0, start).append('-');
+        sb.append(word);
+        if (start + word.length() < length)
+            sb.append('-').append(phone, start + word.length(), length - start - word.length());
+        return sb.toString();
+    }
+
+    /**
+     * @return distinct target words the automaton finds
+     */
+    public int getWordCount() {
+        return this.wordCount;
+    }
+
+    /**
+     * @return states of the automaton
+     */
+    public int size() {
+        return this.depths.length;
+    }
+}
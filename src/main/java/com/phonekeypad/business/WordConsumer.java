@@ -0,0 +1,37 @@
+package com.phonekeypad.business;
+
+import java.util.function.Consumer;
+
+/**
+ * Allocation free callback, called at every word combination with the search buffer itself.
+ * <p/>
+ * The buffer is reused by the search: its content is valid only during the call, and only its first
+ * length chars belong to the combination. Copy them (or build a String) to keep the combination.
+ */
+@FunctionalInterface
+public interface WordConsumer {
+
+    /**
+     * @param word   the search buffer, holding the combination at its start
+     * @param length length of the combination
+     */
+    void accept(char[] word, int length);
+
+    /**
+     * Called by the search at every step, even without results. A consumer wrapping another must forward it.
+     * <p/>
+     * Nothing to do by default: the consumers of a SearchControl throw from here to cut the search short.
+     */
+    default void checkpoint() {
+    }
+
+    /**
+     * Adapter for a consumer of String combinations
+     *
+     * @param consumer
+     * @return
+     */
+    static WordConsumer of(Consumer<String> consumer) {
+        return (word, length) -> consumer.accept(new String(word, 0, length));
+    }
+}
@@ -0,0 +1,59 @@
+package com.phonekeypad.business;
+
+import java.util.Objects;
+
+/**
+ * A dictionary word spelled by some digits of a phone number, anywhere in it. Immutable class!
+ */
+public final class WordHit {
+    private final int start;
+    private final int end;
+    private final String word;
+
+    /**
+     * @param start index of the first digit of the clean number spelling the word
+     * @param end   index after the last digit spelling the word
+     * @param word
+     */
+    public WordHit(int start, int end, String word) {
+        this.start = start;
+        this.end = end;
+        this.word = word;
+    }
+
+    public int getStart() {
+        return this.start;
+    }
+
+    public int getEnd() {
+        return this.end;
+    }
+
+    public String getWord() {
+        return this.word;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof WordHit))
+            return false;
+
+        WordHit hit = (WordHit) o;
+        return this.start == hit.start && this.end == hit.end && this.word.equals(hit.word);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.start, this.end, this.word);
+    }
+
+    /**
+     * @return like 4-11 FLOWERS
+     */
+    @Override
+    public String toString() {
+        return this.start + "-" + this.end + " " + this.word;
+    }
+}
@@ -0,0 +1,208 @@
+package com.phonekeypad.console;
+
+import com.phonekeypad.business.PhoneNumberMatcher;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Parallel batch processing of phone number files, writing the results in the same order of the sequential processing.
+ * <p/>
+ * Three stages: a reader thread that reads the phone numbers, a pool of workers sharing the same (thread safe)
+ * PhoneNumberMatcher, and a single writer, the calling thread. The reader queues the pending results of every
+ * phone number in input order, and the writer takes them in that order. The queue is bounded, so the reader waits
+ * when the writer falls behind, and the memory stays flat whatever the size of the input files.
+ * <p/>
+ * The results of a number are bounded too: its worker hands them over in chunks, and waits once a few chunks are
+ * pending. The number the writer is on streams straight through, so one with tens of MB of combinations is never
+ * held whole in memory. The pool starts the numbers in input order, so that number always has a worker.
+ */
+public class BatchPipeline {
+    private static final int PENDING_PER_THREAD = 16;
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int CHUNKS_PER_PHONE = 4;
+    private static final byte[] END_OF_RESULTS = new byte[0];
+    private static final PendingResults END_OF_INPUT = new PendingResults();
+
+    private final PhoneNumberMatcher pm;
+    private final int threads;
+    private final boolean frontCoded;
+
+    /**
+     * Pipeline constructor
+     *
+     * @param pm      shared phone number matcher
+     * @param threads number of matcher workers
+     */
+    public BatchPipeline(PhoneNumberMatcher pm, int threads) {
+        this(pm, threads, false);
+    }
+
+    /**
+     * Pipeline constructor, with the output format
+     *
+     * @param pm         shared phone number matcher
+     * @param threads    number of matcher workers
+     * @param frontCoded write the combinations front coded. The first line of every number shares nothing,
+     *                   so the results of every worker are coded on their own.
+     */
+    public BatchPipeline(PhoneNumberMatcher pm, int threads, boolean frontCoded) {
+        this.pm = pm;
+        this.threads = threads;
+        this.frontCoded = frontCoded;
+    }
+
+    /**
+     * Consume the phone number files, writing all results to the output stream
+     *
+     * @param filesPhoneNumbers
+     * @param out
+     */
+    public void process(List<InputStream> filesPhoneNumbers, OutputStream out) {
+        ExecutorService workers = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable, "phonespell-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        BlockingQueue<PendingResults> pending = new ArrayBlockingQueue<>(this.threads * PENDING_PER_THREAD);
+
+        Thread reader = new Thread(() -> read(filesPhoneNumbers, workers, pending), "phonespell-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        PrintStream ps = new PrintStream(new BufferedOutputStream(out));
+        try {
+            for (PendingResults results = pending.take(); results != END_OF_INPUT; results = pending.take()) {
+                for (byte[] chunk = results.chunks.take(); chunk != END_OF_RESULTS; chunk = results.chunks.take())
+                    ps.write(chunk);
+                results.task.get();
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChallengeRuntimeException("Batch processing interrupted!", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new ChallengeRuntimeException("Error trying to match a phone number!", e);
+        } catch (IOException e) {
+            throw new ChallengeRuntimeException("Error trying to write the results!", e);
+        } finally {
+            reader.interrupt();
+            workers.shutdownNow();
+            ps.flush();
+            ps.close();
+        }
+    }
+
+    /**
+     * Reader stage: submit every phone number to the workers, queueing its pending results in input order
+     *
+     * @param filesPhoneNumbers
+     * @param workers
+     * @param pending
+     */
+    private void read(List<InputStream> filesPhoneNumbers, ExecutorService workers, BlockingQueue<PendingResults> pending) {
+        try {
+            for (InputStream fis : filesPhoneNumbers) {
+                try {
+                    PhoneNumberReader reader = new PhoneNumberReader(fis);
+
+                    for (int length = reader.nextPhone(); length != -1; length = reader.nextPhone()) {
+                        String cleanPhone = new String(reader.getDigits(), 0, length);
+                        PendingResults results = new PendingResults();
+                        results.task = workers.submit(() -> match(cleanPhone, results));
+                        pending.put(results);
+                    }
+
+                    reader.close();
+
+                } catch (IOException e) {
+                    CompletableFuture<Void> failure = new CompletableFuture<>();
+                    failure.completeExceptionally(new ChallengeRuntimeException("Error trying to read file line!", e));
+                    PendingResults results = new PendingResults();
+                    results.task = failure;
+                    results.chunks.put(END_OF_RESULTS);
+                    pending.put(results);
+                    return;
+                }
+            }
+
+            pending.put(END_OF_INPUT);
+
+        } catch (InterruptedException e) {
+            //the writer gave up, just finish
+        }
+    }
+
+    /**
+     * Worker stage: all results of a clean phone number, handed to the writer as the bytes the sequential
+     * processing would print
+     *
+     * @param cleanPhone
+     * @param results
+     */
+    private void match(String cleanPhone, PendingResults results) {
+        PrintWriter pw = new PrintWriter(new OutputStreamWriter(results, StandardCharsets.UTF_8));
+        try {
+            this.pm.spellClean(cleanPhone, this.frontCoded ? new FrontCodedWriter(pw) : ConsoleClient.printer(pw));
+        } finally {
+            pw.close();
+        }
+    }
+
+    /**
+     * The results of one phone number, on their way from its worker to the writer in chunks of CHUNK_SIZE bytes.
+     * The worker waits while CHUNKS_PER_PHONE chunks are pending.
+     */
+    private static final class PendingResults extends OutputStream {
+        private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(CHUNKS_PER_PHONE);
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private Future<?> task;
+
+        @Override
+        public void write(int b) {
+            this.buffer.write(b);
+            if (this.buffer.size() >= CHUNK_SIZE)
+                handOver();
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            this.buffer.write(bytes, offset, length);
+            if (this.buffer.size() >= CHUNK_SIZE)
+                handOver();
+        }
+
+        /**
+         * Hand over the last chunk and the end of the results
+         */
+        @Override
+        public void close() {
+            if (this.buffer.size() > 0)
+                handOver();
+            put(END_OF_RESULTS);
+        }
+
+        private void handOver() {
+            put(this.buffer.toByteArray());
+            this.buffer.reset();
+        }
+
+        /**
+         * Unchecked, so the PrintWriter in front of it doesn't swallow it and the search stops
+         *
+         * @param chunk
+         */
+        private void put(byte[] chunk) {
+            try {
+                this.chunks.put(chunk);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ChallengeRuntimeException("Batch processing interrupted!", e);
+            }
+        }
+    }
+}
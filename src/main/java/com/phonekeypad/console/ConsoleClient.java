@@ -1,17 +1,53 @@
 package com.phonekeypad.console;
 
+import com.phonekeypad.business.DictionarySnapshot;
+import com.phonekeypad.business.DigitIndexMatcher;
+import com.phonekeypad.business.ForkJoinMatcher;
+import com.phonekeypad.business.Keypad;
+import com.phonekeypad.business.MemoizedMatcher;
 import com.phonekeypad.business.PhoneNumberMatcher;
+import com.phonekeypad.business.ReloadableMatcher;
+import com.phonekeypad.business.SearchStats;
+import com.phonekeypad.business.Trie;
+import com.phonekeypad.business.VanityAutomaton;
+import com.phonekeypad.business.WordConsumer;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Scanner;
 
 /**
  * Console interface client
+ * <p/>
+ * Every file, read or written in any mode, is UTF-8 whatever the platform charset.
  */
 public class ConsoleClient {
+    private static final String ENGINE_PARAM = "--engine";
+    private static final String ENGINE_LETTERS = "letters";
+    private static final String ENGINE_DIGITS = "digits";
+    private static final String ENGINE_MEMO = "memo";
+    private static final String ENGINE_FORK_JOIN = "forkjoin";
+    private static final String FORK_DEPTH_PARAM = "--fork-depth";
+    private static final String KEYPAD_PARAM = "--keypad";
+    private static final String COMPILE_PARAM = "--compile";
+    private static final String THREADS_PARAM = "--threads";
+    private static final String STATS_PARAM = "--stats";
+    private static final String HTTP_PARAM = "--http";
+    private static final String CACHE_PARAM = "--cache";
+    private static final String WATCH_PARAM = "--watch";
+    private static final String MAX_RESULTS_PARAM = "--max-results";
+    private static final String TIMEOUT_PARAM = "--timeout";
+    private static final String UNIQUE_PARAM = "--unique";
+    private static final String DAWG_PARAM = "--dawg";
+    private static final String VANITY_PARAM = "--vanity";
+    private static final String SPOT_PARAM = "--spot";
+    private static final String FRONT_CODED_PARAM = "--front-coded";
+    private static final String DECODE_PARAM = "--decode";
+
     private PhoneNumberMatcher pm;
     private InputStream in;
     private OutputStream out;
@@ -24,7 +60,18 @@ public class ConsoleClient {
      * @param out
      */
     public ConsoleClient(InputStream dictionaryFile, InputStream in, OutputStream out) {
-        this.pm = new PhoneNumberMatcher(dictionaryFile);
+        this(new PhoneNumberMatcher(dictionaryFile), in, out);
+    }
+
+    /**
+     * Console client over an already loaded phone number matcher
+     *
+     * @param pm
+     * @param in
+     * @param out
+     */
+    public ConsoleClient(PhoneNumberMatcher pm, InputStream in, OutputStream out) {
+        this.pm = pm;
         this.in = in;
         this.out = out;
     }
@@ -48,17 +95,231 @@ public class ConsoleClient {
      * @param out
      */
     protected static void startConsoleClient(String[] args, InputStream in, OutputStream out) {
-        InputStream dictionaryFile = getDictionaryFile(getDictFileParam(args));
+        String dictFileParam = getDictFileParam(args);
+        InputStream dictionaryFile = getDictionaryFile(dictFileParam);
+
+        String compileFile = getParam(args, COMPILE_PARAM);
+        if (compileFile != null) {
+            //offline dictionary compilation, no phone is processed
+            compileDictionary(dictionaryFile, compileFile, hasFlag(args, DAWG_PARAM));
+            return;
+        }
+
         List<InputStream> filesPhoneNumbers = getFilesToProcess(args);
 
-        if (filesPhoneNumbers.isEmpty()) {
+        if (hasFlag(args, DECODE_PARAM)) {
+            //expand front coded result files back to the plain format, no phone is processed
+            decodeFiles(filesPhoneNumbers, out);
+            return;
+        }
+
+        String vanityFile = getParam(args, VANITY_PARAM);
+        if (vanityFile != null) {
+            //reverse search, the numbers of the inventory files spelling the target words
+            scanInventory(createVanityAutomaton(vanityFile, getKeypad(getParam(args, KEYPAD_PARAM))), filesPhoneNumbers, out);
+            return;
+        }
+        PhoneNumberMatcher pm = createMatcher(args, dictFileParam, dictionaryFile);
+
+        if (hasFlag(args, WATCH_PARAM))
+            pm = watchDictionary(args, dictFileParam, pm);
+
+        if (getParam(args, CACHE_PARAM) != null)
+            pm.enableCache(getIntParam(args, CACHE_PARAM, 1));
+
+        if (getParam(args, MAX_RESULTS_PARAM) != null || getParam(args, TIMEOUT_PARAM) != null) {
+            //every number is cut short at the limits, so a single bad input can not stall the run
+            long maxResults = getParam(args, MAX_RESULTS_PARAM) == null ? Long.MAX_VALUE : getIntParam(args, MAX_RESULTS_PARAM, 1);
+            long timeoutMillis = getParam(args, TIMEOUT_PARAM) == null ? Long.MAX_VALUE : getIntParam(args, TIMEOUT_PARAM, 1);
+            pm.setDefaultLimits(maxResults, timeoutMillis);
+        }
+
+        SearchStats stats = null;
+        if (hasFlag(args, STATS_PARAM)) {
+            //search counters, also published as a JMX MBean
+            stats = pm.enableStats();
+            stats.register(SearchStats.OBJECT_NAME);
+        }
+
+        if (getParam(args, HTTP_PARAM) != null) {
+            //long running server over the already loaded dictionary
+            startHttpServer(pm, getIntParam(args, HTTP_PARAM, 0));
+
+        } else if (filesPhoneNumbers.isEmpty()) {
             //open as an interactive console application
-            ConsoleClient cc = new ConsoleClient(dictionaryFile, in, out);
+            ConsoleClient cc = new ConsoleClient(pm, in, out);
             cc.startConsole();
 
         } else {
             //consumes all informed files immediately and finishes
-            processFiles(dictionaryFile, filesPhoneNumbers, out);
+            if (hasFlag(args, UNIQUE_PARAM) || getParam(args, UNIQUE_PARAM) != null)
+                filesPhoneNumbers = uniqueNumbers(filesPhoneNumbers, getIntParam(args, UNIQUE_PARAM, (int) (ExternalDeduplicator.DEFAULT_MEMORY_BUDGET >> 20)) * (1L << 20));
+
+            int threads = getIntParam(args, THREADS_PARAM, 1);
+            if (hasFlag(args, SPOT_PARAM))
+                spotFiles(pm, filesPhoneNumbers, out);
+            else if (threads > 1)
+                new BatchPipeline(pm, threads, hasFlag(args, FRONT_CODED_PARAM)).process(filesPhoneNumbers, out);
+            else
+                processFiles(pm, filesPhoneNumbers, out, hasFlag(args, FRONT_CODED_PARAM));
+
+            //the summary goes to stderr, keeping the results output clean
+            if (stats != null)
+                System.err.println(stats.summary());
+            if (stats != null && pm.getCache() != null)
+                System.err.println(pm.getCache().summary());
+        }
+    }
+
+    /**
+     * Reload the dictionary file, with the same engine and keypad, every time it changes
+     *
+     * @param args
+     * @param dictFileParam
+     * @param pm            matcher of the current dictionary
+     * @return the reloadable matcher
+     */
+    protected static ReloadableMatcher watchDictionary(String[] args, String dictFileParam, PhoneNumberMatcher pm) {
+        if (dictFileParam == null || !new File(dictFileParam).isFile()) {
+            printUsageSplash();
+            throw new IllegalArgumentException("Only a dictionary file can be watched!");
+        }
+
+        ReloadableMatcher reloadable = new ReloadableMatcher(pm, dictionary -> createMatcher(args, dictFileParam, dictionary));
+        try {
+            reloadable.watch(new File(dictFileParam));
+        } catch (IOException e) {
+            throw new ChallengeRuntimeException("Error trying to watch the dictionary file!", e);
+        }
+        return reloadable;
+    }
+
+    /**
+     * Start the HTTP query server. It keeps running after this method returns.
+     *
+     * @param pm
+     * @param port
+     */
+    protected static void startHttpServer(PhoneNumberMatcher pm, int port) {
+        try {
+            HttpQueryServer server = new HttpQueryServer(pm, port);
+            server.start();
+            System.out.println(MessageFormat.format("Listening on http://localhost:{0,number,#}{1}?phone=PHONE_NUMBER", server.getPort(), HttpQueryServer.SPELL_PATH));
+
+        } catch (IOException e) {
+            throw new ChallengeRuntimeException("Error trying to start the HTTP server!", e);
+        }
+    }
+
+    /**
+     * Create the phone number matcher of the chosen search engine.
+     * A dictionary snapshot file is memory mapped instead of loaded.
+     *
+     * @param args           --engine: letters (default), digits, memo or forkjoin, and --keypad
+     * @param dictFileParam
+     * @param dictionaryFile
+     * @return
+     */
+    protected static PhoneNumberMatcher createMatcher(String[] args, String dictFileParam, InputStream dictionaryFile) {
+        PhoneNumberMatcher pm = createEngine(args, dictFileParam, dictionaryFile);
+
+        //suffix sharing letter trie, the digits and memo engines search their own digit index instead
+        if (hasFlag(args, DAWG_PARAM))
+            pm.minimizeTrie();
+        return pm;
+    }
+
+    /**
+     * Create the matcher of the search engine given by the args
+     *
+     * @param args
+     * @param dictFileParam
+     * @param dictionaryFile
+     * @return
+     */
+    private static PhoneNumberMatcher createEngine(String[] args, String dictFileParam, InputStream dictionaryFile) {
+        String engine = getParam(args, ENGINE_PARAM);
+        Keypad keypad = getKeypad(getParam(args, KEYPAD_PARAM));
+        Trie snapshot = mapSnapshot(dictFileParam, dictionaryFile, hasFlag(args, WATCH_PARAM));
+
+        if (engine == null || ENGINE_LETTERS.equals(engine))
+            return snapshot != null ? new PhoneNumberMatcher(snapshot, keypad) : new PhoneNumberMatcher(dictionaryFile, keypad);
+
+        if (ENGINE_DIGITS.equals(engine))
+            return snapshot != null ? new DigitIndexMatcher(snapshot, keypad) : new DigitIndexMatcher(dictionaryFile, keypad);
+
+        if (ENGINE_MEMO.equals(engine))
+            return snapshot != null ? new MemoizedMatcher(snapshot, keypad) : new MemoizedMatcher(dictionaryFile, keypad);
+
+        if (ENGINE_FORK_JOIN.equals(engine)) {
+            ForkJoinMatcher fjm = snapshot != null ? new ForkJoinMatcher(snapshot, keypad) : new ForkJoinMatcher(dictionaryFile, keypad);
+            fjm.setForkDepth(getIntParam(args, FORK_DEPTH_PARAM, ForkJoinMatcher.DEFAULT_FORK_DEPTH));
+            return fjm;
+        }
+
+        printUsageSplash();
+        throw new IllegalArgumentException(MessageFormat.format("Unknown search engine {0}!", engine));
+    }
+
+    /**
+     * Get a built in keypad layout by name, or load a keypad config file
+     *
+     * @param strKeypad
+     * @return
+     */
+    protected static Keypad getKeypad(String strKeypad) {
+        if (strKeypad == null || strKeypad.isEmpty())
+            return Keypad.getDefault();
+
+        if (Keypad.isBuiltIn(strKeypad))
+            return Keypad.builtIn(strKeypad);
+
+        try (InputStream isKeypad = getInputStream(strKeypad)) {
+            return Keypad.load(strKeypad, isKeypad);
+        } catch (IOException e) {
+            printUsageSplash();
+            throw new IllegalArgumentException("Error trying to load the keypad file!", e);
+        }
+    }
+
+    /**
+     * Memory map the dictionary file if it is a snapshot on disk, or null.
+     * A watched snapshot is read into the heap instead: the file is rewritten in place on every change, and
+     * a mapping of a file truncated or rewritten under it fails the JVM (SIGBUS) on the next access.
+     *
+     * @param dictFileParam
+     * @param dictionaryFile
+     * @param watched        the dictionary file is watched for changes
+     * @return
+     */
+    protected static Trie mapSnapshot(String dictFileParam, InputStream dictionaryFile, boolean watched) {
+        if (dictFileParam == null || !DictionarySnapshot.isSnapshot(new File(dictFileParam)))
+            return null;
+
+        try (InputStream is = dictionaryFile) {
+            if (watched)
+                return DictionarySnapshot.read(is);
+            return DictionarySnapshot.map(new File(dictFileParam));
+        } catch (IOException e) {
+            throw new ChallengeRuntimeException("Error trying to map the dictionary snapshot!", e);
+        }
+    }
+
+    /**
+     * Load the dictionary and write it as a snapshot file, ready to be memory mapped by -d=
+     *
+     * @param dictionaryFile
+     * @param snapshotFile
+     * @param minimize       write the minimized DawgTrie, a smaller snapshot with the same words
+     */
+    protected static void compileDictionary(InputStream dictionaryFile, String snapshotFile, boolean minimize) {
+        PhoneNumberMatcher pm = new PhoneNumberMatcher(dictionaryFile);
+        Trie trie = minimize ? pm.minimizeTrie() : pm.getTrie();
+
+        try {
+            DictionarySnapshot.write(trie, pm.getFrequencies(), new File(snapshotFile));
+        } catch (IOException e) {
+            throw new ChallengeRuntimeException("Error trying to write the dictionary snapshot!", e);
         }
     }
 
@@ -78,22 +339,34 @@ public class ConsoleClient {
     /**
      * Consume the phone number files making suggestions accordingly to the dictionary file
      *
-     * @param dictionaryFile
+     * @param pm
      * @param filesPhoneNumbers
      * @param out
      */
-    private static void processFiles(InputStream dictionaryFile, List<InputStream> filesPhoneNumbers, OutputStream out) {
-        PhoneNumberMatcher pm = new PhoneNumberMatcher(dictionaryFile);
-        PrintStream ps = new PrintStream(new BufferedOutputStream(out));
+    protected static void processFiles(PhoneNumberMatcher pm, List<InputStream> filesPhoneNumbers, OutputStream out) {
+        processFiles(pm, filesPhoneNumbers, out, false);
+    }
+
+    /**
+     * Consume the phone number files, writing the combinations in the plain or the front coded format
+     *
+     * @param pm
+     * @param filesPhoneNumbers
+     * @param out
+     * @param frontCoded        every line shares its leading chars with the previous one, see FrontCodedWriter
+     */
+    protected static void processFiles(PhoneNumberMatcher pm, List<InputStream> filesPhoneNumbers, OutputStream out, boolean frontCoded) {
+        PrintWriter pw = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        WordConsumer printer = frontCoded ? new FrontCodedWriter(pw) : printer(pw);
 
         for (InputStream fis : filesPhoneNumbers) {
             try {
-                BufferedReader br = new BufferedReader(new InputStreamReader(fis));
+                PhoneNumberReader reader = new PhoneNumberReader(fis);
 
-                for (String phone = br.readLine(); phone != null; phone = br.readLine())
-                    pm.matches(phone, ps::println);
+                for (int length = reader.nextPhone(); length != -1; length = reader.nextPhone())
+                    pm.spellClean(new String(reader.getDigits(), 0, length), printer);
 
-                fis.close();
+                reader.close();
 
             } catch (FileNotFoundException e) {
                 throw new ChallengeRuntimeException("Error trying to open the file of phones!", e);
@@ -102,8 +375,21 @@ public class ConsoleClient {
             }
         }
 
-        ps.flush();
-        ps.close();
+        pw.flush();
+        pw.close();
+    }
+
+    /**
+     * Print every combination as a line, straight from the search buffer
+     *
+     * @param pw
+     * @return
+     */
+    protected static WordConsumer printer(PrintWriter pw) {
+        return (word, length) -> {
+            pw.write(word, 0, length);
+            pw.println();
+        };
     }
 
     /**
@@ -158,7 +444,9 @@ public class ConsoleClient {
         for (String arg : args) {
 
             try {
-                InputStream fis = getInputStream(arg);
+                //the files unbuffered, PhoneNumberReader reads them through their FileChannel
+                File f = new File(arg);
+                InputStream fis = f.exists() ? new FileInputStream(f) : getInputStream(arg);
                 fileToProcess.add(fis);
             } catch (Exception e) {
                 //Do nothing!
@@ -167,6 +455,150 @@ public class ConsoleClient {
         return fileToProcess;
     }
 
+    /**
+     * Load the target words, one per line, into a vanity automaton
+     *
+     * @param wordsFile
+     * @param keypad
+     * @return
+     */
+    protected static VanityAutomaton createVanityAutomaton(String wordsFile, Keypad keypad) {
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(getInputStream(wordsFile), StandardCharsets.UTF_8))) {
+            List<String> words = new ArrayList<>();
+            for (String word = br.readLine(); word != null; word = br.readLine())
+                words.add(word);
+
+            return new VanityAutomaton(words, keypad);
+
+        } catch (IOException e) {
+            printUsageSplash();
+            throw new IllegalArgumentException("Error trying to read the target words file!", e);
+        }
+    }
+
+    /**
+     * Scan the inventory files in a single streaming pass, printing every target word found in every number:
+     * the clean number, the index of the first digit spelling the word, the word and the spelled number, tab separated
+     *
+     * @param automaton
+     * @param inventoryFiles
+     * @param out
+     */
+    protected static void scanInventory(VanityAutomaton automaton, List<InputStream> inventoryFiles, OutputStream out) {
+        PrintWriter pw = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        VanityAutomaton.MatchConsumer printer = (phone, length, start, word) -> {
+            pw.write(phone, 0, length);
+            pw.print('\t');
+            pw.print(start);
+            pw.print('\t');
+            pw.print(word);
+            pw.print('\t');
+            pw.println(VanityAutomaton.spelling(phone, length, start, word));
+        };
+
+        for (InputStream fis : inventoryFiles) {
+            try {
+                PhoneNumberReader reader = new PhoneNumberReader(fis);
+                for (int length = reader.nextPhone(); length != -1; length = reader.nextPhone())
+                    automaton.scan(reader.getDigits(), length, printer);
+                reader.close();
+
+            } catch (IOException e) {
+                throw new ChallengeRuntimeException("Error trying to read file line!", e);
+            }
+        }
+
+        pw.flush();
+    }
+
+    /**
+     * Expand the front coded files to the plain format, one combination per line
+     *
+     * @param frontCodedFiles
+     * @param out
+     */
+    protected static void decodeFiles(List<InputStream> frontCodedFiles, OutputStream out) {
+        PrintWriter pw = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+
+        for (InputStream fis : frontCodedFiles) {
+            try {
+                FrontCodedReader.decode(fis, pw);
+            } catch (IOException e) {
+                throw new ChallengeRuntimeException("Error trying to read file line!", e);
+            }
+        }
+
+        pw.flush();
+    }
+
+    /**
+     * Print every dictionary word spelled anywhere in every number of the files, with no combination enumerated:
+     * the clean number, the start and end (exclusive) digit indexes and the word, tab separated
+     *
+     * @param pm
+     * @param filesPhoneNumbers
+     * @param out
+     */
+    protected static void spotFiles(PhoneNumberMatcher pm, List<InputStream> filesPhoneNumbers, OutputStream out) {
+        PrintWriter pw = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        VanityAutomaton automaton = pm.getSpotter();
+        VanityAutomaton.MatchConsumer printer = (phone, length, start, word) -> {
+            pw.write(phone, 0, length);
+            pw.print('\t');
+            pw.print(start);
+            pw.print('\t');
+            pw.print(start + word.length());
+            pw.print('\t');
+            pw.println(word);
+        };
+
+        for (InputStream fis : filesPhoneNumbers) {
+            try {
+                PhoneNumberReader reader = new PhoneNumberReader(fis);
+                for (int length = reader.nextPhone(); length != -1; length = reader.nextPhone())
+                    automaton.scan(reader.getDigits(), length, printer);
+                reader.close();
+
+            } catch (IOException e) {
+                throw new ChallengeRuntimeException("Error trying to read file line!", e);
+            }
+        }
+
+        pw.flush();
+    }
+
+    /**
+     * Keep every clean phone number once, so every combination is printed once: a combination spells a single
+     * clean number, and the combinations of one number are already distinct. Much cheaper than deduplicating
+     * the output, as a number has many combinations.
+     *
+     * @param filesPhoneNumbers
+     * @param memoryBudget      bytes of numbers kept in memory, the rest spills to sorted runs on disk
+     * @return a single file with the distinct clean numbers, in sorted order
+     */
+    protected static List<InputStream> uniqueNumbers(List<InputStream> filesPhoneNumbers, long memoryBudget) {
+        try (ExternalDeduplicator deduplicator = new ExternalDeduplicator(memoryBudget)) {
+            for (InputStream fis : filesPhoneNumbers) {
+                PhoneNumberReader reader = new PhoneNumberReader(fis);
+                for (int length = reader.nextPhone(); length != -1; length = reader.nextPhone())
+                    if (length > 0)
+                        deduplicator.add(new String(reader.getDigits(), 0, length));
+                reader.close();
+            }
+
+            File unique = File.createTempFile("phonespell-unique", ".txt");
+            unique.deleteOnExit();
+            try (PrintWriter pw = new PrintWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(unique), StandardCharsets.UTF_8)))) {
+                deduplicator.forEachUnique(pw::println);
+            }
+
+            return Collections.singletonList(new FileInputStream(unique));
+
+        } catch (IOException e) {
+            throw new ChallengeRuntimeException("Error trying to deduplicate the phone numbers!", e);
+        }
+    }
+
     /**
      * Get the dictionary file or null
      *
@@ -198,12 +630,71 @@ public class ConsoleClient {
         return dictionaryFile;
     }
 
+    /**
+     * Get the value of a --name=value parameter or null
+     *
+     * @param args
+     * @param name
+     * @return
+     */
+    protected static String getParam(String[] args, String name) {
+        String prefix = name + "=";
+        for (String arg : args) {
+            arg = arg.trim();
+            if (arg.startsWith(prefix))
+                return arg.substring(prefix.length()).trim();
+        }
+        return null;
+    }
+
+    /**
+     * Check a --name flag parameter
+     *
+     * @param args
+     * @param name
+     * @return
+     */
+    protected static boolean hasFlag(String[] args, String name) {
+        for (String arg : args)
+            if (name.equals(arg.trim()))
+                return true;
+        return false;
+    }
+
+    /**
+     * Get the value of a --name=N parameter or the default value
+     *
+     * @param args
+     * @param name
+     * @param defaultValue
+     * @return
+     */
+    protected static int getIntParam(String[] args, String name, int defaultValue) {
+        String value = getParam(args, name);
+        if (value == null)
+            return defaultValue;
+
+        try {
+            int intValue = Integer.parseInt(value);
+            if (intValue < 1)
+                throw new NumberFormatException(value);
+            return intValue;
+        } catch (NumberFormatException e) {
+            printUsageSplash();
+            throw new IllegalArgumentException(MessageFormat.format("Invalid {0} value {1}!", name, value), e);
+        }
+    }
+
     /**
      * Print splash and usage pattern
      */
     private static void printUsageSplash() {
         printChallengeSplash();
-        System.out.println("Usage: java -jar 1-800-CHALLENGE.jar [-d=DICTIONARY_FILE] [PHONE_LIST_1 PHONE_LIST_2 ...]");
+        System.out.println("Usage: java -jar 1-800-CHALLENGE.jar [-d=DICTIONARY_FILE] [--engine=letters|digits|memo|forkjoin] [--fork-depth=N] [--keypad=e161|legacy|greek|russian|KEYPAD_FILE] [--dawg] [--threads=N] [--cache=ENTRIES] [--max-results=N] [--timeout=MILLIS] [--unique[=MEMORY_MB]] [--spot] [--front-coded] [--stats] [PHONE_LIST_1 PHONE_LIST_2 ...]");
+        System.out.println("       java -jar 1-800-CHALLENGE.jar [-d=DICTIONARY_FILE] [--engine=...] [--keypad=...] [--cache=ENTRIES] [--max-results=N] [--timeout=MILLIS] [--stats] [--watch] --http=PORT");
+        System.out.println("       java -jar 1-800-CHALLENGE.jar [-d=DICTIONARY_FILE] [--dawg] --compile=SNAPSHOT_FILE");
+        System.out.println("       java -jar 1-800-CHALLENGE.jar [--keypad=...] --vanity=WORDS_FILE INVENTORY_1 [INVENTORY_2 ...]");
+        System.out.println("       java -jar 1-800-CHALLENGE.jar --decode FRONT_CODED_1 [FRONT_CODED_2 ...]");
     }
 
     /**
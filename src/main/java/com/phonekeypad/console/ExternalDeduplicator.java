@@ -0,0 +1,201 @@
+package com.phonekeypad.console;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Memory bounded set of lines, giving every distinct line once, in sorted order, like sort -u. Not thread safe!
+ * <p/>
+ * The lines are kept in a hash set while their estimated size is within the memory budget. Past it, the set
+ * is sorted and spilled to a run file on disk, and emptied. The runs and the last set are merged at the end,
+ * dropping the duplicates between them. Duplicates within the memory budget never reach the disk, and every
+ * MAX_RUNS spills the runs are merged into one, bounding the open files of the final merge.
+ */
+public class ExternalDeduplicator implements Closeable {
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    //String, its char array and the hash set node, on a 64 bit JVM
+    private static final int LINE_OVERHEAD = 96;
+    private static final int MAX_RUNS = 64;
+
+    private final long memoryBudget;
+    private final File tempDir;
+    private final Set<String> lines = new HashSet<>();
+    private final List<File> runs = new ArrayList<>();
+    private long memory;
+
+    /**
+     * Deduplicator spilling to the default temporary directory
+     *
+     * @param memoryBudget estimated bytes of lines kept in memory
+     */
+    public ExternalDeduplicator(long memoryBudget) {
+        this(memoryBudget, null);
+    }
+
+    /**
+     * @param memoryBudget estimated bytes of lines kept in memory
+     * @param tempDir      directory of the run files, null for the default temporary directory
+     */
+    public ExternalDeduplicator(long memoryBudget, File tempDir) {
+        if (memoryBudget < 1)
+            throw new IllegalArgumentException("The memory budget must be positive!");
+        this.memoryBudget = memoryBudget;
+        this.tempDir = tempDir;
+    }
+
+    /**
+     * Add a line, spilling the lines in memory once over the budget
+     *
+     * @param line
+     * @throws IOException
+     */
+    public void add(String line) throws IOException {
+        if (this.lines.add(line))
+            this.memory += LINE_OVERHEAD + 2L * line.length();
+
+        if (this.memory > this.memoryBudget)
+            spill();
+    }
+
+    /**
+     * Call the consumer with every distinct line, in sorted order
+     *
+     * @param consumer
+     * @throws IOException
+     */
+    public void forEachUnique(Consumer<String> consumer) throws IOException {
+        Iterator<String> inMemory = sorted().iterator();
+        merge(this.runs, () -> inMemory.hasNext() ? inMemory.next() : null, consumer);
+    }
+
+    /**
+     * @return run files spilled to disk so far
+     */
+    public int getRuns() {
+        return this.runs.size();
+    }
+
+    /**
+     * Delete the run files
+     */
+    @Override
+    public void close() {
+        for (File run : this.runs)
+            delete(run);
+        this.runs.clear();
+        this.lines.clear();
+        this.memory = 0;
+    }
+
+    /**
+     * Write the lines in memory as a sorted run, and empty the memory.
+     * Too many runs are merged into one, so the final merge never opens more than MAX_RUNS files.
+     *
+     * @throws IOException
+     */
+    private void spill() throws IOException {
+        Iterator<String> inMemory = sorted().iterator();
+        List<File> merged = this.runs.size() < MAX_RUNS ? Collections.<File>emptyList() : new ArrayList<>(this.runs);
+        File run = File.createTempFile("phonespell-unique", ".run", this.tempDir);
+
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(run), StandardCharsets.UTF_8))) {
+            merge(merged, () -> inMemory.hasNext() ? inMemory.next() : null, line -> {
+                try {
+                    writer.write(line);
+                    writer.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        for (File mergedRun : merged)
+            delete(mergedRun);
+        this.runs.removeAll(merged);
+        this.runs.add(run);
+
+        this.lines.clear();
+        this.memory = 0;
+    }
+
+    /**
+     * Merge the sorted runs and lines, giving every distinct line once
+     *
+     * @param runFiles
+     * @param lineSource sorted lines, null at the end
+     * @param consumer
+     * @throws IOException
+     */
+    private static void merge(List<File> runFiles, LineSource lineSource, Consumer<String> consumer) throws IOException {
+        List<BufferedReader> readers = new ArrayList<>();
+        try {
+            PriorityQueue<Head> heads = new PriorityQueue<>();
+            for (File run : runFiles) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(run), StandardCharsets.UTF_8));
+                readers.add(reader);
+                Head.offer(heads, reader.readLine(), reader::readLine);
+            }
+            Head.offer(heads, lineSource.next(), lineSource);
+
+            String last = null;
+            while (!heads.isEmpty()) {
+                Head head = heads.poll();
+                if (!head.line.equals(last)) {
+                    consumer.accept(head.line);
+                    last = head.line;
+                }
+                Head.offer(heads, head.source.next(), head.source);
+            }
+        } finally {
+            for (BufferedReader reader : readers)
+                reader.close();
+        }
+    }
+
+    private static void delete(File run) {
+        if (!run.delete())
+            run.deleteOnExit();
+    }
+
+    private List<String> sorted() {
+        List<String> sorted = new ArrayList<>(this.lines);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Source of sorted lines, null at its end
+     */
+    @FunctionalInterface
+    private interface LineSource {
+        String next() throws IOException;
+    }
+
+    /**
+     * The next line of a sorted source, ordered by the line
+     */
+    private static final class Head implements Comparable<Head> {
+        private final String line;
+        private final LineSource source;
+
+        private Head(String line, LineSource source) {
+            this.line = line;
+            this.source = source;
+        }
+
+        private static void offer(PriorityQueue<Head> heads, String line, LineSource source) {
+            if (line != null)
+                heads.add(new Head(line, source));
+        }
+
+        @Override
+        public int compareTo(Head other) {
+            return this.line.compareTo(other.line);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.phonekeypad.console;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Decoder of the lines written by FrontCodedWriter, back to one whole combination per line. Not thread safe!
+ */
+public class FrontCodedReader {
+    private final BufferedReader reader;
+    private char[] combination = new char[64];
+    private int length;
+
+    /**
+     * @param input front coded lines, UTF-8 like every file of the console client
+     */
+    public FrontCodedReader(InputStream input) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read and expand the next line
+     *
+     * @return length of the combination, at the start of getCombination(), or -1 at the end of the input
+     * @throws IOException
+     */
+    public int nextCombination() throws IOException {
+        String line = this.reader.readLine();
+        if (line == null)
+            return -1;
+
+        int separator = line.indexOf(FrontCodedWriter.SEPARATOR);
+        int shared;
+        try {
+            shared = separator < 1 ? -1 : Integer.parseInt(line.substring(0, separator));
+        } catch (NumberFormatException e) {
+            shared = -1;
+        }
+        if (shared < 0 || shared > this.length)
+            throw new IllegalArgumentException("Invalid front coded line: " + line);
+
+        int rest = line.length() - separator - 1;
+        if (shared + rest > this.combination.length)
+            this.combination = Arrays.copyOf(this.combination, Math.max(shared + rest, this.combination.length * 2));
+
+        line.getChars(separator + 1, line.length(), this.combination, shared);
+        this.length = shared + rest;
+        return this.length;
+    }
+
+    /**
+     * @return the reusable buffer holding the last combination read
+     */
+    public char[] getCombination() {
+        return this.combination;
+    }
+
+    /**
+     * Close the input
+     *
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    /**
+     * Expand a whole front coded input to the plain format, one combination per line
+     *
+     * @param input
+     * @param out
+     * @throws IOException
+     */
+    public static void decode(InputStream input, PrintWriter out) throws IOException {
+        FrontCodedReader reader = new FrontCodedReader(input);
+        for (int length = reader.nextCombination(); length != -1; length = reader.nextCombination()) {
+            out.write(reader.getCombination(), 0, length);
+            out.println();
+        }
+        reader.close();
+    }
+}
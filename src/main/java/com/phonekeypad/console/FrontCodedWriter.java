@@ -0,0 +1,62 @@
+package com.phonekeypad.console;
+
+import com.phonekeypad.business.WordConsumer;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+/**
+ * Writes the combinations front coded, a WordConsumer straight from the search buffer. Not thread safe!
+ * <p/>
+ * The combinations of a number come in search order, so most of every combination repeats the previous one,
+ * like DATA-00-NEVA-... over and over. Every line has the number of leading chars shared with the previous
+ * combination, a tab, and only the rest of the combination: 12 chars and a tab, then NEVB, instead of the whole
+ * DATA-00-NEVB line. The first line of the output, or of a reset writer, shares nothing.
+ * <p/>
+ * The combinations never have a tab, and FrontCodedReader expands the lines back to the plain format.
+ */
+public class FrontCodedWriter implements WordConsumer {
+    public static final char SEPARATOR = '\t';
+
+    private final PrintWriter pw;
+    private char[] previous = new char[64];
+    private int previousLength;
+
+    /**
+     * @param pw where the front coded lines are written
+     */
+    public FrontCodedWriter(PrintWriter pw) {
+        this.pw = pw;
+    }
+
+    /**
+     * Write the chars not shared with the previous combination, and keep the combination for the next one
+     *
+     * @param word
+     * @param length
+     */
+    @Override
+    public void accept(char[] word, int length) {
+        int limit = Math.min(length, this.previousLength);
+        int shared = 0;
+        while (shared < limit && word[shared] == this.previous[shared])
+            shared++;
+
+        this.pw.print(shared);
+        this.pw.write(SEPARATOR);
+        this.pw.write(word, shared, length - shared);
+        this.pw.println();
+
+        if (length > this.previous.length)
+            this.previous = Arrays.copyOf(this.previous, Math.max(length, this.previous.length * 2));
+        System.arraycopy(word, shared, this.previous, shared, length - shared);
+        this.previousLength = length;
+    }
+
+    /**
+     * Forget the previous combination, so the next line shares nothing and can be decoded on its own
+     */
+    public void reset() {
+        this.previousLength = 0;
+    }
+}
@@ -0,0 +1,276 @@
+package com.phonekeypad.console;
+
+import com.phonekeypad.business.PhoneNumberMatcher;
+import com.phonekeypad.business.WordConsumer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Long running HTTP front end, answering spelling queries over a shared, already loaded PhoneNumberMatcher.
+ * Uses only the JDK built in HttpServer.
+ * <p/>
+ * GET /spell?phone=225563 (the phone param may repeat) and POST /spell, with one phone number per line in the body,
+ * answer the same lines of the batch mode, streamed as a chunked text/plain response while the search runs.
+ * <p/>
+ * The offset and limit params answer a single page of the combinations of every number, like offset=200&limit=50
+ * (100 combinations without a limit), skipping the combinations before it without enumerating them.
+ * A single number also gets its total number of combinations in the X-Total-Count header.
+ * <p/>
+ * Every request runs on its own thread: a virtual thread when the JVM has them (Java 21+), a cached pool thread otherwise.
+ */
+public class HttpQueryServer {
+    public static final String SPELL_PATH = "/spell";
+
+    private static final String PHONE_PARAM = "phone";
+    private static final String OFFSET_PARAM = "offset";
+    private static final String LIMIT_PARAM = "limit";
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final String CONTENT_TYPE = "text/plain; charset=UTF-8";
+    private static final int CHUNKED = 0;
+    private static final int NO_BODY = -1;
+
+    private final PhoneNumberMatcher pm;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Bind the server to the port, not started yet
+     *
+     * @param pm   shared phone number matcher
+     * @param port port to listen, 0 for any free port
+     * @throws IOException
+     */
+    public HttpQueryServer(PhoneNumberMatcher pm, int port) throws IOException {
+        this.pm = pm;
+        this.executor = createExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.server.setExecutor(this.executor);
+        this.server.createContext(SPELL_PATH, this::handleSpell);
+    }
+
+    /**
+     * Start answering the queries, in background
+     */
+    public void start() {
+        this.server.start();
+    }
+
+    /**
+     * Stop the server, waiting up to delay seconds for the running queries
+     *
+     * @param delay
+     */
+    public void stop(int delay) {
+        this.server.stop(delay);
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * @return the port the server listens to
+     */
+    public int getPort() {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * Answer a spelling query, writing the combinations straight from the search buffer to the response
+     *
+     * @param exchange
+     * @throws IOException
+     */
+    protected void handleSpell(HttpExchange exchange) throws IOException {
+        try {
+            List<String> phones;
+            if ("GET".equals(exchange.getRequestMethod()))
+                phones = getQueryPhones(exchange.getRequestURI().getRawQuery());
+            else if ("POST".equals(exchange.getRequestMethod()))
+                phones = getBodyPhones(exchange.getRequestBody());
+            else {
+                exchange.getResponseHeaders().set("Allow", "GET, POST");
+                exchange.sendResponseHeaders(405, NO_BODY);
+                return;
+            }
+
+            if (phones.isEmpty()) {
+                sendError(exchange, 400, "No phone number to spell!");
+                return;
+            }
+
+            String rawQuery = exchange.getRequestURI().getRawQuery();
+            List<String> offsets = getQueryParams(rawQuery, OFFSET_PARAM);
+            List<String> limits = getQueryParams(rawQuery, LIMIT_PARAM);
+            if (!offsets.isEmpty() || !limits.isEmpty()) {
+                long offset;
+                int limit;
+                try {
+                    offset = offsets.isEmpty() ? 0 : Long.parseLong(offsets.get(0));
+                    limit = limits.isEmpty() ? DEFAULT_PAGE_SIZE : Integer.parseInt(limits.get(0));
+                } catch (NumberFormatException e) {
+                    sendError(exchange, 400, "Invalid page offset or limit!");
+                    return;
+                }
+                if (offset < 0 || limit < 0) {
+                    sendError(exchange, 400, "Invalid page offset or limit!");
+                    return;
+                }
+
+                sendPage(exchange, phones, offset, limit);
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, CHUNKED);
+
+            Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8));
+            WordConsumer responder = responder(writer);
+            for (String phone : phones)
+                this.pm.spell(phone, responder);
+            writer.flush();
+
+        } catch (UncheckedIOException e) {
+            //the client is gone, the search was stopped by the failed write
+
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Answer the same page of the combinations of every number, streamed while the walk runs
+     * and cut short by the default limits of the matcher, like a whole spelling.
+     * The total count of a single number is counted within the same limits, and left out when cut short.
+     *
+     * @param exchange
+     * @param phones
+     * @param offset
+     * @param limit
+     * @throws IOException
+     */
+    protected void sendPage(HttpExchange exchange, List<String> phones, long offset, int limit) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        if (phones.size() == 1) {
+            BigInteger total = this.pm.count(phones.get(0), null);
+            if (total != null)
+                exchange.getResponseHeaders().set(TOTAL_COUNT_HEADER, total.toString());
+        }
+        exchange.sendResponseHeaders(200, CHUNKED);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8));
+        WordConsumer responder = responder(writer);
+        for (String phone : phones)
+            this.pm.page(phone, offset, limit, responder);
+        writer.flush();
+    }
+
+    /**
+     * Write every combination as a line, straight from the search buffer. Unlike a PrintWriter, a failed write
+     * is not swallowed: it is thrown as an UncheckedIOException, so the search of a client gone stops at once.
+     *
+     * @param writer
+     * @return
+     */
+    protected static WordConsumer responder(Writer writer) {
+        String lineSeparator = System.lineSeparator();
+        return (word, length) -> {
+            try {
+                writer.write(word, 0, length);
+                writer.write(lineSeparator);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    /**
+     * The values of all phone params of the query string
+     *
+     * @param rawQuery
+     * @return
+     * @throws UnsupportedEncodingException
+     */
+    protected static List<String> getQueryPhones(String rawQuery) throws UnsupportedEncodingException {
+        return getQueryParams(rawQuery, PHONE_PARAM);
+    }
+
+    /**
+     * The values of all params of the query string with the name
+     *
+     * @param rawQuery
+     * @param name
+     * @return
+     * @throws UnsupportedEncodingException
+     */
+    protected static List<String> getQueryParams(String rawQuery, String name) throws UnsupportedEncodingException {
+        List<String> values = new ArrayList<>();
+        if (rawQuery == null)
+            return values;
+
+        for (String param : rawQuery.split("&")) {
+            int equals = param.indexOf('=');
+            if (equals > 0 && name.equals(param.substring(0, equals)))
+                values.add(URLDecoder.decode(param.substring(equals + 1), "UTF-8"));
+        }
+        return values;
+    }
+
+    /**
+     * One phone number per line of the request body
+     *
+     * @param body
+     * @return
+     * @throws IOException
+     */
+    protected static List<String> getBodyPhones(InputStream body) throws IOException {
+        List<String> phones = new ArrayList<>();
+        BufferedReader br = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+        for (String phone = br.readLine(); phone != null; phone = br.readLine())
+            phones.add(phone);
+
+        return phones;
+    }
+
+    /**
+     * Answer an error with a plain text message
+     *
+     * @param exchange
+     * @param status
+     * @param message
+     * @throws IOException
+     */
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    /**
+     * A virtual thread per request when the JVM has them, or a cached pool of daemon threads
+     *
+     * @return
+     */
+    protected static ExecutorService createExecutor() {
+        try {
+            //looked up by reflection, the code is still compiled for Java 8
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "phonespell-http");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.phonekeypad.console;
+
+import com.phonekeypad.business.PhoneNumberMatcher;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Streaming reader of phone number files, one number per line. Not thread safe!
+ * <p/>
+ * Reads large byte buffers through a channel and pulls the digits and dots of every line straight from the bytes
+ * into a reusable buffer: no String per line, no regex cleaning. An unbuffered FileInputStream is read through its
+ * own FileChannel into a direct buffer, so the bytes are copied once, from the file to the buffer; any other stream
+ * is read through a channel adapter into a heap buffer.
+ * Any other byte is dropped, like PhoneNumberMatcher.cleanPhoneNumber does. That includes every byte of
+ * a multi byte UTF-8 char, as they are never ASCII, so dirty and non ASCII input is cleaned the same way.
+ */
+public class PhoneNumberReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private char[] digits = new char[32];
+    private boolean endOfInput;
+
+    /**
+     * Reader with the default buffer size
+     *
+     * @param input
+     */
+    public PhoneNumberReader(InputStream input) {
+        this(input, BUFFER_SIZE);
+    }
+
+    /**
+     * @param input      a FileInputStream is best passed unbuffered
+     * @param bufferSize bytes read at once
+     */
+    public PhoneNumberReader(InputStream input, int bufferSize) {
+        if (input instanceof FileInputStream) {
+            this.channel = ((FileInputStream) input).getChannel();
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        } else {
+            this.channel = Channels.newChannel(input);
+            this.buffer = ByteBuffer.allocate(bufferSize);
+        }
+        this.buffer.flip();
+    }
+
+    /**
+     * Read the next line, keeping its clean digits
+     *
+     * @return number of clean digits of the line, at the start of getDigits(), or -1 at the end of the input
+     * @throws IOException
+     */
+    public int nextPhone() throws IOException {
+        ByteBuffer bytes = this.buffer;
+        int length = 0;
+        boolean lineStarted = false;
+
+        while (true) {
+            if (!this.buffer.hasRemaining() && !fill())
+                return lineStarted ? length : -1;
+
+            int position = this.buffer.position();
+            int limit = this.buffer.limit();
+            lineStarted = true;
+
+            for (; position < limit; position++) {
+                byte b = bytes.get(position);
+
+                if (b == '\n' || b == '\r') {
+                    this.buffer.position(position + 1);
+                    return length;
+                }
+
+                if (PhoneNumberMatcher.isPhoneChar((char) b)) {
+                    if (length == this.digits.length)
+                        this.digits = Arrays.copyOf(this.digits, length * 2);
+                    this.digits[length++] = (char) b;
+                }
+            }
+
+            this.buffer.position(limit);
+        }
+    }
+
+    /**
+     * @return the reusable buffer holding the clean digits of the last line read
+     */
+    public char[] getDigits() {
+        return this.digits;
+    }
+
+    /**
+     * Close the input
+     *
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Read the next bytes into the empty buffer
+     *
+     * @return false at the end of the input
+     * @throws IOException
+     */
+    private boolean fill() throws IOException {
+        if (this.endOfInput)
+            return false;
+
+        this.buffer.clear();
+        int read = 0;
+        while (read == 0)
+            read = this.channel.read(this.buffer);
+        this.buffer.flip();
+
+        if (read < 0) {
+            this.endOfInput = true;
+            return false;
+        }
+        return true;
+    }
+}
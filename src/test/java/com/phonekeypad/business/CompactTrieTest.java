@@ -0,0 +1,93 @@
+package com.phonekeypad.business;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for CompactTrie
+ */
+public class CompactTrieTest {
+
+    /**
+     * Words must be found char by char, following the mid links
+     */
+    @Test
+    public void testPutAndFind() {
+        CompactTrie trie = new CompactTrie();
+        trie.put("DATA");
+        trie.put("DAT");
+        trie.put("META");
+
+        Assert.assertTrue(contains(trie, "DATA"));
+        Assert.assertTrue(contains(trie, "DAT"));
+        Assert.assertTrue(contains(trie, "META"));
+        Assert.assertFalse(contains(trie, "DA"));
+        Assert.assertFalse(contains(trie, "NEVA"));
+        Assert.assertFalse(contains(trie, "METAL"));
+    }
+
+    /**
+     * The same word put twice ends at the same node and creates no nodes
+     */
+    @Test
+    public void testDuplicatedWord() {
+        CompactTrie trie = new CompactTrie();
+        int node = trie.put("CALL");
+        int size = trie.size();
+
+        Assert.assertEquals(node, trie.put("CALL"));
+        Assert.assertEquals(size, trie.size());
+    }
+
+    /**
+     * Growing beyond the initial capacity and trimming must keep every word
+     */
+    @Test
+    public void testGrowAndTrim() {
+        CompactTrie trie = new CompactTrie();
+        for (int i = 0; i < 5000; i++)
+            trie.put(Integer.toString(i * 7919));
+
+        trie.trimToSize();
+
+        Assert.assertEquals(trie.size() * 15L, trie.memoryFootprint());
+        for (int i = 0; i < 5000; i++)
+            Assert.assertTrue(contains(trie, Integer.toString(i * 7919)));
+    }
+
+    /**
+     * Sorted words degenerate into a right chain, the depth counts every link
+     */
+    @Test
+    public void testDepth() {
+        CompactTrie trie = new CompactTrie();
+        Assert.assertEquals(0, trie.depth());
+
+        trie.put("A");
+        trie.put("B");
+        trie.put("C");
+        Assert.assertEquals(3, trie.depth());
+
+        trie.put("CALL");
+        Assert.assertEquals(6, trie.depth());
+    }
+
+    /**
+     * Walk the trie looking for the whole word
+     *
+     * @param trie
+     * @param word
+     * @return
+     */
+    private boolean contains(CompactTrie trie, String word) {
+        int node = trie.root();
+        for (int i = 0; i < word.length(); i++) {
+            node = trie.find(node, word.charAt(i));
+            if (node == CompactTrie.NIL)
+                return false;
+            if (i < word.length() - 1)
+                node = trie.mid(node);
+        }
+        return trie.finishesAWord(node);
+    }
+}
@@ -0,0 +1,98 @@
+package com.phonekeypad.business;
+
+import com.phonekeypad.console.ConsoleClient;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for DawgTrie
+ */
+public class DawgTrieTest {
+
+    /**
+     * Words with the same suffix levels share their nodes
+     */
+    @Test
+    public void testSharedSuffixes() {
+        CompactTrie trie = new CompactTrie();
+        trie.put("RUNNING");
+        trie.put("WALKING");
+        trie.put("WALK");
+
+        DawgTrie dawg = new DawgTrie(trie);
+        Assert.assertEquals(words(trie), words(dawg));
+        Assert.assertEquals(trie.size() - 3, dawg.size()); //the I-N-G chain is stored once
+        Assert.assertTrue(dawg.memoryFootprint() < trie.memoryFootprint());
+    }
+
+    /**
+     * A whole dictionary keeps the same words, in fewer nodes
+     */
+    @Test
+    public void testDictionary() {
+        PhoneNumberMatcher pm = new PhoneNumberMatcher(getClass().getResourceAsStream("/ubuntu_english_dict"));
+        Trie trie = pm.getTrie();
+        DawgTrie dawg = new DawgTrie(trie);
+
+        Assert.assertEquals(words(trie), words(dawg));
+        Assert.assertTrue(dawg.size() < trie.size() / 2);
+        Assert.assertEquals(dawg.size(), new DawgTrie(dawg).size()); //already minimal
+    }
+
+    /**
+     * The search engines answer the same on the minimized trie
+     */
+    @Test
+    public void testSameMatches() {
+        String[] phones = {"32826382", "080032826382", "3282006382", "2222222", "225563", "2255632255", "0", "1.2"};
+        PhoneNumberMatcher regular = new PhoneNumberMatcher(ConsoleClient.getDefaultDictionary());
+        PhoneNumberMatcher minimized = new PhoneNumberMatcher(ConsoleClient.getDefaultDictionary());
+        Assert.assertTrue(minimized.minimizeTrie() instanceof DawgTrie);
+
+        for (String phone : phones) {
+            List<String> expected = new ArrayList<>();
+            regular.matches(phone, expected::add);
+            List<String> results = new ArrayList<>();
+            minimized.matches(phone, results::add);
+
+            Assert.assertEquals(phone, expected, results);
+        }
+    }
+
+    /**
+     * A minimized trie is written and read as a regular snapshot
+     */
+    @Test
+    public void testSnapshot() throws IOException {
+        DawgTrie dawg = new DawgTrie(new PhoneNumberMatcher(ConsoleClient.getDefaultDictionary()).getTrie());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DictionarySnapshot.write(dawg, baos);
+        Trie snapshot = DictionarySnapshot.read(new ByteArrayInputStream(baos.toByteArray()));
+
+        Assert.assertEquals(words(dawg), words(snapshot));
+        Assert.assertEquals(dawg.size(), snapshot.size());
+    }
+
+    /**
+     * An empty trie stays empty
+     */
+    @Test
+    public void testEmpty() {
+        DawgTrie dawg = new DawgTrie(new CompactTrie());
+        Assert.assertEquals(Trie.NIL, dawg.root());
+        Assert.assertEquals(0, dawg.size());
+    }
+
+    private static List<String> words(Trie trie) {
+        List<String> words = new ArrayList<>();
+        trie.forEachWord(words::add);
+        return words;
+    }
+}
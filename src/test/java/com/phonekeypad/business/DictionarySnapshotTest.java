@@ -0,0 +1,136 @@
+package com.phonekeypad.business;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for DictionarySnapshot
+ */
+public class DictionarySnapshotTest {
+    private static PhoneNumberMatcher loadedMatcher;
+    private static byte[] snapshot;
+
+    /**
+     * Load the dictionary once and compile it
+     */
+    @BeforeClass
+    public static void setUp() throws IOException {
+        loadedMatcher = new PhoneNumberMatcher(DictionarySnapshotTest.class.getResourceAsStream("/darcio_dict"));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DictionarySnapshot.write(loadedMatcher.getTrie(), baos);
+        snapshot = baos.toByteArray();
+    }
+
+    /**
+     * A snapshot read from a stream must give the same results of the loaded dictionary
+     */
+    @Test
+    public void testReadSnapshotStream() {
+        PhoneNumberMatcher matcher = new PhoneNumberMatcher(new ByteArrayInputStream(snapshot));
+
+        Assert.assertEquals(matches(loadedMatcher, "080032820063820"), matches(matcher, "080032820063820"));
+        Assert.assertEquals(matches(loadedMatcher, "32826382"), matches(matcher, "32826382"));
+    }
+
+    /**
+     * A mapped snapshot file must give the same results of the loaded dictionary, for both engines
+     */
+    @Test
+    public void testMapSnapshotFile() throws IOException {
+        File file = File.createTempFile("phonespell", ".dict");
+        file.deleteOnExit();
+        DictionarySnapshot.write(loadedMatcher.getTrie(), file);
+
+        Assert.assertTrue(DictionarySnapshot.isSnapshot(file));
+
+        Trie trie = DictionarySnapshot.map(file);
+        Assert.assertEquals(loadedMatcher.getTrie().size(), trie.size());
+        Assert.assertEquals(matches(loadedMatcher, "328200638200"), matches(new PhoneNumberMatcher(trie), "328200638200"));
+        Assert.assertEquals(matches(loadedMatcher, "328200638200"), matches(new DigitIndexMatcher(trie), "328200638200"));
+    }
+
+    /**
+     * Plain word lists are not snapshots
+     */
+    @Test
+    public void testPlainDictionaryIsNotSnapshot() throws IOException {
+        InputStream is = new BufferedInputStream(this.getClass().getResourceAsStream("/darcio_dict"));
+        Assert.assertFalse(DictionarySnapshot.isSnapshot(is));
+    }
+
+    /**
+     * Other versions of the file format must be refused
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedVersion() {
+        byte[] otherVersion = snapshot.clone();
+        otherVersion[7] = (byte) (DictionarySnapshot.VERSION + 1);
+
+        new PhoneNumberMatcher(new ByteArrayInputStream(otherVersion));
+    }
+
+    /**
+     * The frequency column survives the snapshot, read from a stream or mapped, so the ranking is the same
+     */
+    @Test
+    public void testFrequencies() throws IOException {
+        PhoneNumberMatcher loaded = new PhoneNumberMatcher(new ByteArrayInputStream("good 1\nhome\t100\ngone\n".getBytes(StandardCharsets.UTF_8)));
+        File file = File.createTempFile("phonespell", ".dict");
+        file.deleteOnExit();
+        DictionarySnapshot.write(loaded.getTrie(), loaded.getFrequencies(), file);
+
+        PhoneNumberMatcher read = new PhoneNumberMatcher(new FileInputStream(file));
+        PhoneNumberMatcher mapped = new MemoizedMatcher(DictionarySnapshot.map(file));
+        for (PhoneNumberMatcher matcher : Arrays.asList(read, mapped)) {
+            Assert.assertEquals(loaded.getFrequencies(), matcher.getFrequencies());
+            Assert.assertEquals(Arrays.asList("HOME", "GOOD", "GONE"), matcher.topK("4663", 3));
+        }
+    }
+
+    /**
+     * A version 1 snapshot, written before the frequencies, is still read
+     */
+    @Test
+    public void testFirstVersion() {
+        //version 1 ends after the flags, without the frequency count
+        byte[] firstVersion = Arrays.copyOf(snapshot, snapshot.length - 4);
+        firstVersion[7] = 1;
+
+        PhoneNumberMatcher matcher = new PhoneNumberMatcher(new ByteArrayInputStream(firstVersion));
+        Assert.assertEquals(matches(loadedMatcher, "32826382"), matches(matcher, "32826382"));
+        Assert.assertTrue(matcher.getFrequencies().isEmpty());
+    }
+
+    /**
+     * A snapshot cut inside its frequencies is refused
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncatedFrequencies() throws IOException {
+        PhoneNumberMatcher loaded = new PhoneNumberMatcher(new ByteArrayInputStream("good 1\nhome\t100\n".getBytes(StandardCharsets.UTF_8)));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DictionarySnapshot.write(loaded.getTrie(), loaded.getFrequencies(), baos);
+
+        DictionarySnapshot.read(new ByteArrayInputStream(Arrays.copyOf(baos.toByteArray(), baos.size() - 2)));
+    }
+
+    /**
+     * Collect all results of a matcher
+     *
+     * @param matcher
+     * @param phone
+     * @return
+     */
+    private List<String> matches(PhoneNumberMatcher matcher, String phone) {
+        List<String> results = new ArrayList<>();
+        matcher.matches(phone, results::add);
+        return results;
+    }
+}
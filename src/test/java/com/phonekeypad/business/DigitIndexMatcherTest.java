@@ -0,0 +1,90 @@
+package com.phonekeypad.business;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for DigitIndexMatcher
+ */
+public class DigitIndexMatcherTest {
+    private static PhoneNumberMatcher letterMatcher;
+    private static PhoneNumberMatcher digitMatcher;
+
+    /**
+     * Load both engines over the same dictionary
+     */
+    @BeforeClass
+    public static void setUp() {
+        letterMatcher = new PhoneNumberMatcher(DigitIndexMatcherTest.class.getResourceAsStream("/darcio_dict"));
+        digitMatcher = new DigitIndexMatcher(DigitIndexMatcherTest.class.getResourceAsStream("/darcio_dict"));
+    }
+
+    /**
+     * Test CALL-ME
+     */
+    @Test
+    public void testCallMe() {
+        PhoneNumberMatcher matcher = new DigitIndexMatcher(this.getClass().getResourceAsStream("/ubuntu_english_dict"));
+        Assert.assertThat(matches(matcher, "225563"), hasItem("CALL-ME"));
+    }
+
+    /**
+     * Both engines must produce the same results, in the same order
+     */
+    @Test
+    public void testSameResultsAsLetterTrie() {
+        String[] phones = {"32826382", "080032826382", "328206382", "3282006382", "0010001010111010101",
+                "328200638200", "180032820063820", "225563", "2222222", "63-6-63-7-25", "0800328263"};
+
+        for (String phone : phones)
+            Assert.assertEquals(phone, matches(letterMatcher, phone), matches(digitMatcher, phone));
+    }
+
+    /**
+     * Long toll free number with skips
+     */
+    @Test
+    public void testSameResultsLongNumber() {
+        List<String> expected = matches(letterMatcher, "080022556322556345635234");
+
+        Assert.assertTrue(expected.size() > 30);
+        Assert.assertEquals(expected, matches(digitMatcher, "080022556322556345635234"));
+    }
+
+    /**
+     * Duplicated and not normalized words must be indexed once
+     */
+    @Test
+    public void testDuplicatedWords() {
+        byte[] strDict = (
+                "meta\n" +
+                        "META\n" +
+                        "DATA\n" +
+                        "NEVA\n" +
+                        "n\u00e9va\n" +
+                        "").getBytes();
+
+        PhoneNumberMatcher matcher = new DigitIndexMatcher(new ByteArrayInputStream(strDict));
+        Assert.assertThat(matches(matcher, "32826382"), containsInAnyOrder("DATA-NEVA", "DATA-META"));
+    }
+
+    /**
+     * Collect all results of a matcher
+     *
+     * @param matcher
+     * @param phone
+     * @return
+     */
+    private List<String> matches(PhoneNumberMatcher matcher, String phone) {
+        List<String> results = new ArrayList<>();
+        matcher.matches(phone, results::add);
+        return results;
+    }
+}
@@ -0,0 +1,88 @@
+package com.phonekeypad.business;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for ForkJoinMatcher
+ */
+public class ForkJoinMatcherTest {
+    private static PhoneNumberMatcher letterMatcher;
+    private static ForkJoinMatcher forkJoinMatcher;
+
+    /**
+     * Load both engines over the same dictionary
+     */
+    @BeforeClass
+    public static void setUp() {
+        letterMatcher = new PhoneNumberMatcher(ForkJoinMatcherTest.class.getResourceAsStream("/darcio_dict"));
+        forkJoinMatcher = new ForkJoinMatcher(letterMatcher.getTrie());
+        forkJoinMatcher.setPool(new ForkJoinPool(4));
+    }
+
+    /**
+     * Same results of the sequential search, in any order, for every fork depth
+     */
+    @Test
+    public void testSameResultsAsSequential() {
+        String[] phones = {"32826382", "080032826382", "0010001010111010101", "180032820063820", "2255632255", "2"};
+
+        for (int forkDepth = 0; forkDepth < 12; forkDepth += 3) {
+            forkJoinMatcher.setForkDepth(forkDepth);
+
+            for (String phone : phones)
+                Assert.assertEquals(phone, sorted(letterMatcher, phone), sorted(forkJoinMatcher, phone));
+        }
+    }
+
+    /**
+     * A consumer failing aborts every task: none calls it again, during or after the search
+     */
+    @Test
+    public void testConsumerFailureAbortsSiblings() throws InterruptedException {
+        ForkJoinMatcher manyResults = new ForkJoinMatcher(new ByteArrayInputStream("a\nb\nc\nab\nba\ncab\n".getBytes(StandardCharsets.UTF_8)));
+        manyResults.setPool(new ForkJoinPool(4));
+        AtomicInteger calls = new AtomicInteger();
+
+        try {
+            manyResults.spell("2222222222222222222222222222222222222222", (word, length) -> {
+                if (calls.getAndIncrement() == 0)
+                    throw new UncheckedIOException(new IOException("client gone"));
+            });
+            Assert.fail();
+        } catch (UncheckedIOException e) {
+            //expected
+        }
+
+        Thread.sleep(200);
+        Assert.assertEquals(1, calls.get());
+
+        //the next search runs normally
+        Assert.assertEquals(sorted(new PhoneNumberMatcher(manyResults.getTrie()), "2222"), sorted(manyResults, "2222"));
+    }
+
+    /**
+     * Collect and sort all results of a matcher
+     *
+     * @param matcher
+     * @param phone
+     * @return
+     */
+    private List<String> sorted(PhoneNumberMatcher matcher, String phone) {
+        List<String> results = new ArrayList<>();
+        matcher.matches(phone, results::add);
+        Collections.sort(results);
+        return results;
+    }
+}
@@ -0,0 +1,106 @@
+package com.phonekeypad.business;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for Keypad
+ */
+public class KeypadTest {
+
+    /**
+     * The default keypad is the ITU E.161
+     */
+    @Test
+    public void testDefaultKeypad() {
+        Keypad keypad = Keypad.getDefault();
+
+        Assert.assertArrayEquals(new char[]{'P', 'Q', 'R', 'S'}, keypad.letters('7'));
+        Assert.assertNull(keypad.letters('0'));
+        Assert.assertNull(keypad.letters('1'));
+        Assert.assertNull(keypad.letters('.'));
+        Assert.assertEquals('9', keypad.digitOf('Z'));
+        Assert.assertEquals(3, keypad.rank('Z'));
+        Assert.assertEquals(Keypad.NO_DIGIT, keypad.digitOf('-'));
+        Assert.assertEquals(Keypad.NO_DIGIT, keypad.digitOf('\u00c6'));
+    }
+
+    /**
+     * The legacy keypad has no Q and Z, so no word with them can be spelled
+     */
+    @Test
+    public void testLegacyKeypad() {
+        byte[] strDict = "quiz\nquit\nsuit\n".getBytes();
+
+        List<String> e161 = matches(new PhoneNumberMatcher(new ByteArrayInputStream(strDict)), "7848");
+        List<String> legacy = matches(new PhoneNumberMatcher(new ByteArrayInputStream(strDict), Keypad.builtIn("legacy")), "7848");
+
+        Assert.assertThat(e161, hasItems("QUIT", "SUIT"));
+        Assert.assertThat(legacy, hasItem("SUIT"));
+        Assert.assertThat(legacy, not(hasItem("QUIT")));
+        Assert.assertEquals(Keypad.NO_DIGIT, Keypad.builtIn("legacy").digitOf('Q'));
+    }
+
+    /**
+     * Non english dictionaries, normalized and spelled with their own keypad, for every engine
+     */
+    @Test
+    public void testGreekKeypad() {
+        byte[] strDict = "\u03ba\u03b1\u03bb\u03b7\n\u03bc\u03ad\u03c1\u03b1\n".getBytes(StandardCharsets.UTF_8); //kali, mera
+        Keypad greek = Keypad.builtIn("greek");
+
+        Assert.assertThat(matches(new PhoneNumberMatcher(new ByteArrayInputStream(strDict), greek), "52545372"),
+                contains("\u039a\u0391\u039b\u0397-\u039c\u0395\u03a1\u0391"));
+        Assert.assertThat(matches(new MemoizedMatcher(new ByteArrayInputStream(strDict), greek), "52545372"),
+                contains("\u039a\u0391\u039b\u0397-\u039c\u0395\u03a1\u0391"));
+    }
+
+    /**
+     * A custom keypad config file
+     */
+    @Test
+    public void testLoadKeypad() throws IOException {
+        Keypad keypad = Keypad.load("custom", new ByteArrayInputStream("# custom\n2 = abc\n\n3=DEF\n".getBytes()));
+
+        Assert.assertArrayEquals(new char[]{'A', 'B', 'C'}, keypad.letters('2'));
+        Assert.assertEquals('3', keypad.digitOf('F'));
+        Assert.assertNull(keypad.letters('4'));
+    }
+
+    /**
+     * A letter can't be on two digits
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testLetterMappedTwice() throws IOException {
+        Keypad.load("custom", new ByteArrayInputStream("2=ABC\n3=CDE\n".getBytes()));
+    }
+
+    /**
+     * Only digits have letters
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDigit() throws IOException {
+        Keypad.load("custom", new ByteArrayInputStream("*=ABC\n".getBytes()));
+    }
+
+    /**
+     * Collect all results of a matcher
+     *
+     * @param matcher
+     * @param phone
+     * @return
+     */
+    private List<String> matches(PhoneNumberMatcher matcher, String phone) {
+        List<String> results = new ArrayList<>();
+        matcher.matches(phone, results::add);
+        return results;
+    }
+}
@@ -0,0 +1,111 @@
+package com.phonekeypad.business;
+
+import com.phonekeypad.console.ConsoleClient;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for MemoizedMatcher
+ */
+public class MemoizedMatcherTest {
+    private static PhoneNumberMatcher letterMatcher;
+    private static MemoizedMatcher memoizedMatcher;
+
+    /**
+     * Load both engines over the same dictionary
+     */
+    @BeforeClass
+    public static void setUp() {
+        letterMatcher = new PhoneNumberMatcher(ConsoleClient.getDefaultDictionary());
+        memoizedMatcher = new MemoizedMatcher(ConsoleClient.getDefaultDictionary());
+    }
+
+    /**
+     * Both engines must produce the same results, in the same order
+     */
+    @Test
+    public void testSameResultsAsLetterTrie() {
+        String[] phones = {"32826382", "080032826382", "328206382", "3282006382", "0010001010111010101",
+                "328200638200", "180032820063820", "2222222", "63-6-63-7-25", "ad    f(3g   28)26d  38#as2$ +++k",
+                "080022556322556345635234", "2", "0", "1.2"};
+
+        for (String phone : phones)
+            Assert.assertEquals(phone, matches(letterMatcher, phone), matches(memoizedMatcher, phone));
+    }
+
+    /**
+     * Every state of the graph is solved at most once, and the dead ones have no edge leading to them
+     */
+    @Test
+    public void testGraphStates() {
+        SpellingGraph graph = memoizedMatcher.buildGraph("080022556322556345635234");
+
+        Assert.assertFalse(graph.isEmpty());
+        Assert.assertEquals(24, graph.getPhoneLength());
+
+        for (int state = 0; state < 48; state++) {
+            if (!graph.isSolved(state))
+                continue;
+
+            for (int e = 0; e < graph.edgeCount(state); e++) {
+                int target = graph.target(state, e);
+                Assert.assertTrue(target == SpellingGraph.END || !graph.isDead(target));
+            }
+        }
+    }
+
+    /**
+     * The limits are checked on every solved state and every edge, not only on the results
+     */
+    @Test
+    public void testCheckpoints() {
+        int[] counts = {0, 0};
+        memoizedMatcher.spell("080022556322556345635234", new WordConsumer() {
+            @Override
+            public void accept(char[] word, int length) {
+                counts[0]++;
+            }
+
+            @Override
+            public void checkpoint() {
+                counts[1]++;
+            }
+        });
+
+        Assert.assertThat(counts[0], greaterThan(0));
+        Assert.assertThat(counts[1], greaterThan(counts[0]));
+
+        SearchControl control = new SearchControl();
+        control.cancel();
+        Assert.assertEquals(SearchStatus.CANCELLED, memoizedMatcher.matches("080022556322556345635234", word -> Assert.fail(word), control));
+    }
+
+    /**
+     * Phone numbers without digits or without combinations
+     */
+    @Test
+    public void testNoResults() {
+        Assert.assertThat(matches(memoizedMatcher, "abc"), empty());
+        Assert.assertTrue(memoizedMatcher.buildGraph("").isEmpty());
+        Assert.assertThat(matches(memoizedMatcher, "0"), contains("0"));
+    }
+
+    /**
+     * Collect all results of a matcher
+     *
+     * @param matcher
+     * @param phone
+     * @return
+     */
+    private List<String> matches(PhoneNumberMatcher matcher, String phone) {
+        List<String> results = new ArrayList<>();
+        matcher.matches(phone, results::add);
+        return results;
+    }
+}
@@ -7,8 +7,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.*;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -204,6 +203,83 @@ public class PhoneNumberMatcherTest {
         Assert.assertThat(rh1.getResults(), hasItem("1-8-00-DATA-00-NEVA-0"));
     }
 
+    /**
+     * The allocation free callback must see the same combinations, at the start of the search buffer
+     */
+    @Test
+    public void testSpellWordBuffer() {
+        ResultHolder rh1 = new ResultHolder();
+        phoneMatcher.matches("080032820063820", rh1);
+
+        List<String> spelled = new LinkedList<>();
+        phoneMatcher.spell("080032820063820", (word, length) -> {
+            Assert.assertTrue(length <= word.length);
+            spelled.add(new String(word, 0, length));
+        });
+
+        Assert.assertEquals(rh1.getResults(), spelled);
+        Assert.assertThat(spelled, hasItem("0-8-00-DATA-00-NEVA-0"));
+    }
+
+    /**
+     * The same words make the same balanced trie, sorted, reversed or shuffled
+     */
+    @Test
+    public void testBalancedLoad() {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 2000; i++)
+            words.add(Integer.toString(i, 26).toUpperCase().replace('0', 'Z'));
+        Collections.sort(words);
+
+        Trie sorted = load(words);
+        Collections.reverse(words);
+        Trie reversed = load(words);
+        Collections.shuffle(words, new Random(42));
+        words.add(words.get(0)); //duplicated word
+        Trie shuffled = load(words);
+
+        Assert.assertEquals(sorted.size(), reversed.size());
+        Assert.assertEquals(sorted.size(), shuffled.size());
+        Assert.assertEquals(sorted.depth(), shuffled.depth());
+        Assert.assertThat(sorted.depth(), lessThan(30));
+
+        List<String> sortedWords = new ArrayList<>();
+        List<String> shuffledWords = new ArrayList<>();
+        sorted.forEachWord(sortedWords::add);
+        shuffled.forEachWord(shuffledWords::add);
+        Assert.assertEquals(sortedWords, shuffledWords);
+    }
+
+    private static Trie load(List<String> words) {
+        return new PhoneNumberMatcher(new ByteArrayInputStream(String.join("\n", words).getBytes())).getTrie();
+    }
+
+    /**
+     * Counters are only collected after enabling them, and count every result
+     */
+    @Test
+    public void testStats() {
+        ResultHolder rh = new ResultHolder();
+        this.phoneMatcher.matches("225563", rh);
+        Assert.assertNull(this.phoneMatcher.getStats());
+
+        SearchStats stats = this.phoneMatcher.enableStats();
+        rh = new ResultHolder();
+        this.phoneMatcher.matches("225563", rh);
+        this.phoneMatcher.matches("", rh);
+
+        Assert.assertEquals(1, stats.getCalls());
+        Assert.assertEquals(rh.getResults().size(), stats.getResults());
+        Assert.assertThat(stats.getNodesVisited(), greaterThan(0L));
+        Assert.assertThat(stats.getSkipBranches(), greaterThan(0L));
+        Assert.assertThat(stats.getDeadEnds(), greaterThan(0L));
+        Assert.assertThat(stats.getLatencyP99Micros(), lessThanOrEqualTo(stats.getMaxLatencyMicros()));
+
+        stats.reset();
+        Assert.assertEquals(0, stats.getCalls());
+        Assert.assertEquals(0, stats.getLatencyP50Micros());
+    }
+
     /**
      * Numeric mixed to non numeric chars
      */
@@ -0,0 +1,127 @@
+package com.phonekeypad.business;
+
+import com.phonekeypad.console.ConsoleClient;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Tests for RankedSearch and the topK API
+ */
+public class RankedSearchTest {
+    private static final SpellingScorer INTEGER_SCORER = (token, frequency) -> frequency == SpellingScorer.DIGITS
+            ? -2 * token.length
+            : token.length * token.length + frequency;
+
+    private static PhoneNumberMatcher letterMatcher;
+    private static PhoneNumberMatcher digitMatcher;
+
+    /**
+     * Load two engines over the same dictionary
+     */
+    @BeforeClass
+    public static void setUp() {
+        letterMatcher = new PhoneNumberMatcher(ConsoleClient.getDefaultDictionary());
+        digitMatcher = new DigitIndexMatcher(ConsoleClient.getDefaultDictionary());
+    }
+
+    /**
+     * The top k are the first k of all combinations sorted by score, ties in the order of the full search
+     */
+    @Test
+    public void testSameAsSortedEnumeration() {
+        String[] phones = {"32826382", "080032826382", "3282006382", "2222222", "225563", "2255632255", "73685278", "0", "1.2"};
+
+        for (PhoneNumberMatcher pm : Arrays.asList(letterMatcher, digitMatcher))
+            for (String phone : phones) {
+                List<String> all = new ArrayList<>();
+                pm.matches(phone, all::add);
+                all.sort(Comparator.comparingDouble(combination -> -score(pm, combination)));
+
+                for (int k : new int[]{1, 3, all.size() + 1})
+                    Assert.assertEquals(phone, all.subList(0, Math.min(k, all.size())), pm.topK(phone, k, INTEGER_SCORER));
+            }
+    }
+
+    /**
+     * Ties across branches of the search keep the order of the full search, with the default scorer too
+     */
+    @Test
+    public void testTiesInSearchOrder() {
+        for (PhoneNumberMatcher pm : Arrays.asList(letterMatcher, digitMatcher)) {
+            List<String> all = new ArrayList<>();
+            pm.matches("73685278", all::add);
+            all.sort(Comparator.comparingDouble(combination -> -score(pm, combination, SpellingScorer.DEFAULT)));
+
+            Assert.assertEquals(all, pm.topK("73685278", all.size()));
+            Assert.assertEquals(Arrays.asList("PENT-LAST", "RENT-LAST", "SENT-LAST", "PENT-LAS-8", "RENT-LAS-8", "SENT-LAS-8"),
+                    pm.topK("73685278", 6));
+        }
+    }
+
+    /**
+     * The frequency column of the word list ranks words spelled by the same digits
+     */
+    @Test
+    public void testFrequencyColumn() {
+        PhoneNumberMatcher common = load("good 1\nhome\t100\ngone\n");
+        Assert.assertEquals(100, common.getFrequency("HOME"));
+        Assert.assertEquals(1, common.getFrequency("GOOD"));
+        Assert.assertEquals(0, common.getFrequency("GONE"));
+        Assert.assertEquals(Arrays.asList("HOME", "GOOD", "GONE"), common.topK("4663", 3));
+
+        PhoneNumberMatcher rare = load("good 100\nhome 1\nhome 7\n");
+        Assert.assertEquals(7, rare.getFrequency("HOME"));
+        Assert.assertEquals(Arrays.asList("GOOD"), rare.topK("4663", 1));
+    }
+
+    /**
+     * Only a trailing number separated by whitespace is a frequency
+     */
+    @Test
+    public void testFrequencyColumnParsing() {
+        Assert.assertEquals(4, PhoneNumberMatcher.frequencyColumn("HOME 12"));
+        Assert.assertEquals(4, PhoneNumberMatcher.frequencyColumn("HOME\t12  "));
+        Assert.assertEquals(-1, PhoneNumberMatcher.frequencyColumn("HOME"));
+        Assert.assertEquals(-1, PhoneNumberMatcher.frequencyColumn("HOME12"));
+        Assert.assertEquals(-1, PhoneNumberMatcher.frequencyColumn("  12"));
+        Assert.assertEquals(-1, PhoneNumberMatcher.frequencyColumn(""));
+    }
+
+    /**
+     * Numbers without combinations, and empty requests
+     */
+    @Test
+    public void testEmpty() {
+        Assert.assertTrue(letterMatcher.topK("", 3).isEmpty());
+        Assert.assertTrue(letterMatcher.topK("225563", 0).isEmpty());
+        Assert.assertTrue(letterMatcher.topK("99999999", 3).isEmpty());
+    }
+
+    private static PhoneNumberMatcher load(String wordList) {
+        return new PhoneNumberMatcher(new ByteArrayInputStream(wordList.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Score of a combination, summing its tokens
+     */
+    private static double score(PhoneNumberMatcher pm, String combination) {
+        return score(pm, combination, INTEGER_SCORER);
+    }
+
+    private static double score(PhoneNumberMatcher pm, String combination, SpellingScorer scorer) {
+        double score = 0;
+        for (String token : combination.split("-")) {
+            boolean digits = Character.isDigit(token.charAt(0));
+            score += scorer.score(token.toCharArray(), digits ? SpellingScorer.DIGITS : pm.getFrequency(token));
+        }
+        return score;
+    }
+}
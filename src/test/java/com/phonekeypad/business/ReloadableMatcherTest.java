@@ -0,0 +1,144 @@
+package com.phonekeypad.business;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests for ReloadableMatcher
+ */
+public class ReloadableMatcherTest {
+
+    /**
+     * New searches see the new dictionary
+     */
+    @Test
+    public void testReload() {
+        ReloadableMatcher matcher = new ReloadableMatcher(new PhoneNumberMatcher(words("CALL", "ME")), PhoneNumberMatcher::new);
+        Assert.assertEquals(Collections.singletonList("CALL-ME"), matches(matcher, "225563"));
+
+        matcher.reload(words("BALL", "ME"));
+        Assert.assertEquals(Collections.singletonList("BALL-ME"), matches(matcher, "225563"));
+    }
+
+    /**
+     * A search in flight finishes on the dictionary it started with
+     */
+    @Test
+    public void testInFlightSearch() {
+        ReloadableMatcher matcher = new ReloadableMatcher(new PhoneNumberMatcher(words("CALL", "BALL", "ME")), PhoneNumberMatcher::new);
+        List<String> results = new ArrayList<>();
+
+        matcher.matches("225563", result -> {
+            if (results.isEmpty())
+                matcher.reload(words("CALL"));
+            results.add(result);
+        });
+
+        Assert.assertEquals(Arrays.asList("BALL-ME", "CALL-ME"), results);
+        Assert.assertEquals(Collections.emptyList(), matches(matcher, "225563"));
+        Assert.assertEquals(Collections.singletonList("CALL"), matches(matcher, "2255"));
+    }
+
+    /**
+     * The stats go on counting, and the cache doesn't answer combinations of the old dictionary
+     */
+    @Test
+    public void testStatsAndCacheAcrossReloads() {
+        PhoneNumberMatcher initial = new PhoneNumberMatcher(words("CALL", "ME"));
+        SearchStats stats = initial.enableStats();
+        ResultCache cache = initial.enableCache(10);
+        ReloadableMatcher matcher = new ReloadableMatcher(initial, PhoneNumberMatcher::new);
+
+        matches(matcher, "225563");
+        matches(matcher, "225563");
+        Assert.assertEquals(1, cache.getHits());
+
+        matcher.reload(words("BALL", "ME"));
+        Assert.assertEquals(Collections.singletonList("BALL-ME"), matches(matcher, "225563"));
+        Assert.assertEquals(3, stats.getCalls());
+        Assert.assertThat(stats.getNodesVisited(), org.hamcrest.Matchers.greaterThan(0L));
+    }
+
+    /**
+     * A watched file is reloaded after changing
+     */
+    @Test
+    public void testWatch() throws Exception {
+        File dictionary = File.createTempFile("phonespell", ".dict");
+        dictionary.deleteOnExit();
+        Files.write(dictionary.toPath(), "CALL\nME\n".getBytes(StandardCharsets.UTF_8));
+
+        ReloadableMatcher matcher = new ReloadableMatcher(new PhoneNumberMatcher(Files.newInputStream(dictionary.toPath())), PhoneNumberMatcher::new);
+        matcher.watch(dictionary);
+        try {
+            Files.write(dictionary.toPath(), "BALL\nME\n".getBytes(StandardCharsets.UTF_8));
+
+            List<String> results = matches(matcher, "225563");
+            for (int i = 0; i < 200 && !results.contains("BALL-ME"); i++) {
+                Thread.sleep(50);
+                results = matches(matcher, "225563");
+            }
+            Assert.assertEquals(Collections.singletonList("BALL-ME"), results);
+
+        } finally {
+            matcher.stopWatching();
+        }
+    }
+
+    /**
+     * The default limits of the wrapper also cut short the pages answered by the current matcher, after a reload too
+     */
+    @Test
+    public void testDefaultLimits() {
+        ReloadableMatcher matcher = new ReloadableMatcher(new PhoneNumberMatcher(words("A", "B", "C", "AB", "BA")), PhoneNumberMatcher::new);
+        matcher.setDefaultLimits(5, Long.MAX_VALUE);
+
+        for (int reload = 0; reload < 2; reload++) {
+            List<String> page = new ArrayList<>();
+            Assert.assertEquals(SearchStatus.RESULT_LIMIT, matcher.page("22222222", 0, 50, WordConsumer.of(page::add)));
+            Assert.assertEquals(5, page.size());
+
+            matcher.reload(words("A", "B", "C", "AB", "BA", "CAB"));
+        }
+
+        matcher.setDefaultLimits(Long.MAX_VALUE, Long.MAX_VALUE);
+        Assert.assertEquals(SearchStatus.COMPLETED, matcher.page("22222222", 0, 50, (word, length) -> {
+        }));
+    }
+
+    /**
+     * A reload in background completes after the swap
+     */
+    @Test
+    public void testReloadInBackground() throws Exception {
+        File dictionary = File.createTempFile("phonespell", ".dict");
+        dictionary.deleteOnExit();
+        Files.write(dictionary.toPath(), "BALL\nME\n".getBytes(StandardCharsets.UTF_8));
+
+        ReloadableMatcher matcher = new ReloadableMatcher(new PhoneNumberMatcher(words("CALL", "ME")), PhoneNumberMatcher::new);
+        matcher.reloadInBackground(dictionary).get();
+
+        Assert.assertEquals(Collections.singletonList("BALL-ME"), matches(matcher, "225563"));
+    }
+
+    private static InputStream words(String... words) {
+        return new ByteArrayInputStream(String.join("\n", words).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> matches(PhoneNumberMatcher matcher, String phone) {
+        List<String> results = new ArrayList<>();
+        matcher.matches(phone, results::add);
+        return results;
+    }
+}
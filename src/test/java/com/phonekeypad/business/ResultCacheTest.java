@@ -0,0 +1,113 @@
+package com.phonekeypad.business;
+
+import com.phonekeypad.console.ConsoleClient;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tests for ResultCache
+ */
+public class ResultCacheTest {
+    private PhoneNumberMatcher phoneMatcher;
+
+    /**
+     * Setup the phone number matcher
+     */
+    @Before
+    public void setUp() {
+        this.phoneMatcher = new PhoneNumberMatcher(ConsoleClient.getDefaultDictionary());
+    }
+
+    /**
+     * A cached number answers the same combinations, in the same order, without searching again
+     */
+    @Test
+    public void testHit() {
+        List<String> expected = matches("3282-6382");
+        ResultCache cache = this.phoneMatcher.enableCache(10);
+
+        Assert.assertEquals(expected, matches("3282-6382"));
+        Assert.assertEquals(expected, matches("32826382")); //same clean number
+        Assert.assertEquals(1, cache.getMisses());
+        Assert.assertEquals(1, cache.getHits());
+    }
+
+    /**
+     * The least recently used number is evicted
+     */
+    @Test
+    public void testEviction() {
+        ResultCache cache = this.phoneMatcher.enableCache(2);
+        matches("225563");
+        matches("32826382");
+        matches("225563");
+        matches("2255");
+        Assert.assertEquals(2, cache.size());
+
+        matches("225563");
+        Assert.assertEquals(2, cache.getHits());
+        matches("32826382");
+        Assert.assertEquals(4, cache.getMisses());
+    }
+
+    /**
+     * Numbers with too many combinations are answered but not cached
+     */
+    @Test
+    public void testHugeOutputSkipped() {
+        List<String> expected = matches("32826382");
+        ResultCache cache = new ResultCache(10, 10); //DATA-NEVA and DAUB-NEVA are 18 chars
+        this.phoneMatcher.setCache(cache);
+
+        Assert.assertEquals(expected, matches("32826382"));
+        Assert.assertEquals(expected, matches("32826382"));
+        Assert.assertEquals(2, cache.getSkipped());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    /**
+     * Concurrent searches over the same cache answer the same combinations
+     */
+    @Test
+    public void testConcurrentUse() throws Exception {
+        List<String> expected = matches("32826382");
+        ResultCache cache = this.phoneMatcher.enableCache(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String phone = i % 2 == 0 ? "32826382" : "225563";
+            futures.add(executor.submit(() -> matches(phone)));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            List<String> results = futures.get(i).get();
+            if (i % 2 == 0)
+                Assert.assertEquals(expected, results);
+        }
+        executor.shutdown();
+
+        Assert.assertEquals(40, cache.getHits() + cache.getMisses());
+    }
+
+    /**
+     * Invalid limits
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        new ResultCache(0);
+    }
+
+    private List<String> matches(String phone) {
+        List<String> results = new ArrayList<>();
+        this.phoneMatcher.matches(phone, results::add);
+        return results;
+    }
+}
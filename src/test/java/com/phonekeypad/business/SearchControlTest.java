@@ -0,0 +1,159 @@
+package com.phonekeypad.business;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for SearchControl, over every engine
+ */
+public class SearchControlTest {
+    private static final String MANY_RESULTS = "222222222";
+    private static final String SHORT_WORDS = "a\nb\nc\nab\nba\ncab\n";
+
+    /**
+     * Every 2 digit spells several words, so the number has many thousands of combinations
+     *
+     * @return
+     */
+    private static PhoneNumberMatcher shortWordsMatcher() {
+        return new PhoneNumberMatcher(new ByteArrayInputStream(SHORT_WORDS.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static List<PhoneNumberMatcher> matchers() {
+        Trie trie = shortWordsMatcher().getTrie();
+        return Arrays.asList(new PhoneNumberMatcher(trie), new DigitIndexMatcher(trie), new MemoizedMatcher(trie), new ForkJoinMatcher(trie));
+    }
+
+    /**
+     * A search with more combinations than the limit gives exactly the limit, and tells it was cut short
+     */
+    @Test
+    public void testMaxResults() {
+        for (PhoneNumberMatcher pm : matchers()) {
+            List<String> all = new ArrayList<>();
+            Assert.assertEquals(SearchStatus.COMPLETED, pm.matches(MANY_RESULTS, all::add));
+            Assert.assertTrue(all.size() > 10);
+
+            List<String> limited = new ArrayList<>();
+            SearchControl control = new SearchControl().setMaxResults(10);
+            Assert.assertEquals(SearchStatus.RESULT_LIMIT, pm.matches(MANY_RESULTS, limited::add, control));
+            Assert.assertEquals(SearchStatus.RESULT_LIMIT, control.getStatus());
+            Assert.assertEquals(10, limited.size());
+
+            //exactly as many combinations as the limit is still a complete search
+            List<String> exact = new ArrayList<>();
+            Assert.assertEquals(SearchStatus.COMPLETED, pm.matches(MANY_RESULTS, exact::add, new SearchControl().setMaxResults(all.size())));
+            Assert.assertEquals(all.size(), exact.size());
+        }
+    }
+
+    /**
+     * A cancelled control stops the search at its first step
+     */
+    @Test
+    public void testCancelled() {
+        for (PhoneNumberMatcher pm : matchers()) {
+            SearchControl control = new SearchControl();
+            control.cancel();
+
+            List<String> results = new ArrayList<>();
+            Assert.assertEquals(SearchStatus.CANCELLED, pm.matches(MANY_RESULTS, results::add, control));
+            Assert.assertTrue(results.isEmpty());
+        }
+    }
+
+    /**
+     * A slow first result makes the search miss its deadline
+     */
+    @Test
+    public void testDeadline() {
+        for (PhoneNumberMatcher pm : matchers()) {
+            List<String> results = new ArrayList<>();
+            SearchControl control = new SearchControl().setTimeout(50, TimeUnit.MILLISECONDS);
+
+            SearchStatus status = pm.matches(MANY_RESULTS, word -> {
+                if (results.isEmpty())
+                    sleep(100);
+                results.add(word);
+            }, control);
+
+            Assert.assertEquals(SearchStatus.DEADLINE, status);
+            Assert.assertTrue(status.isCutShort());
+            Assert.assertFalse(results.isEmpty());
+            Assert.assertTrue(results.size() < count(pm, MANY_RESULTS));
+        }
+    }
+
+    /**
+     * A search cut short is not cached, and counted by the stats
+     */
+    @Test
+    public void testNotCached() {
+        PhoneNumberMatcher pm = shortWordsMatcher();
+        ResultCache cache = new ResultCache(10, 1 << 24);
+        pm.setCache(cache);
+        SearchStats stats = pm.enableStats();
+
+        pm.setDefaultLimits(10, Long.MAX_VALUE);
+        List<String> limited = new ArrayList<>();
+        Assert.assertEquals(SearchStatus.RESULT_LIMIT, pm.matches(MANY_RESULTS, limited::add));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(10, stats.getResults());
+        Assert.assertEquals(1, stats.getCutShort());
+
+        pm.setDefaultLimits(Long.MAX_VALUE, Long.MAX_VALUE);
+        List<String> all = new ArrayList<>();
+        Assert.assertEquals(SearchStatus.COMPLETED, pm.matches(MANY_RESULTS, all::add));
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(limited, all.subList(0, 10));
+
+        //replayed from the cache, still within the limits
+        limited.clear();
+        Assert.assertEquals(SearchStatus.RESULT_LIMIT, pm.matches(MANY_RESULTS, limited::add, new SearchControl().setMaxResults(10)));
+        Assert.assertEquals(10, limited.size());
+    }
+
+    /**
+     * The checkpoints reach the consumer of the caller through the stats and the control
+     */
+    @Test
+    public void testCheckpointsForwarded() {
+        PhoneNumberMatcher pm = shortWordsMatcher();
+        pm.enableStats();
+        int[] checkpoints = {0};
+        WordConsumer consumer = new WordConsumer() {
+            @Override
+            public void accept(char[] word, int length) {
+            }
+
+            @Override
+            public void checkpoint() {
+                checkpoints[0]++;
+            }
+        };
+
+        Assert.assertEquals(SearchStatus.COMPLETED, pm.spell(MANY_RESULTS, consumer, new SearchControl()));
+        Assert.assertTrue(checkpoints[0] > 0);
+    }
+
+    private static int count(PhoneNumberMatcher pm, String phone) {
+        List<String> results = new ArrayList<>();
+        pm.matches(phone, results::add);
+        return results.size();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.phonekeypad.business;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Tests for SearchStats
+ */
+public class SearchStatsTest {
+
+    /**
+     * Percentiles are the upper bound of the power of two bucket, capped by the max latency
+     */
+    @Test
+    public void testLatencyPercentiles() {
+        SearchStats stats = new SearchStats();
+        for (int i = 0; i < 99; i++)
+            stats.callFinished(1_000);
+        stats.callFinished(1_000_000);
+
+        Assert.assertEquals(100, stats.getCalls());
+        Assert.assertEquals(1, stats.getLatencyP50Micros()); //1000ns bucket goes up to 1023ns
+        Assert.assertEquals(1, stats.getLatencyP99Micros());
+        Assert.assertEquals(1000, stats.getLatencyPercentileMicros(1.0));
+        Assert.assertEquals(1000, stats.getMaxLatencyMicros());
+        Assert.assertEquals(99, stats.getLatencyHistogram()[9]);
+    }
+
+    /**
+     * Results are counted by the wrapped consumer
+     */
+    @Test
+    public void testCountingConsumer() {
+        SearchStats stats = new SearchStats();
+        int[] received = {0};
+        WordConsumer consumer = stats.counting((word, length) -> received[0]++);
+
+        consumer.accept(new char[]{'A'}, 1);
+        consumer.accept(new char[]{'B'}, 1);
+
+        Assert.assertEquals(2, received[0]);
+        Assert.assertEquals(2, stats.getResults());
+    }
+
+    /**
+     * The stats are visible through JMX, registering twice replaces the first MBean
+     */
+    @Test
+    public void testRegister() throws Exception {
+        String name = SearchStats.OBJECT_NAME + ",name=test";
+        new SearchStats().register(name);
+
+        SearchStats stats = new SearchStats();
+        stats.register(name);
+        stats.deadEnd();
+
+        Object deadEnds = ManagementFactory.getPlatformMBeanServer().getAttribute(new ObjectName(name), "DeadEnds");
+        Assert.assertEquals(1L, deadEnds);
+    }
+}
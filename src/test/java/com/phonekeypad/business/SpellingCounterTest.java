@@ -0,0 +1,96 @@
+package com.phonekeypad.business;
+
+import com.phonekeypad.console.ConsoleClient;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Tests for the count and pages of SpellingCounter
+ */
+public class SpellingCounterTest {
+    private static final String[] PHONES = {"32826382", "080032826382", "328206382", "3282006382", "0010001010111010101",
+            "328200638200", "2222222", "63-6-63-7-25", "080022556322556345635234", "2", "0", "1.2", ""};
+
+    /**
+     * The count is the number of combinations of the full search, on every engine
+     */
+    @Test
+    public void testSameCountAsFullSearch() {
+        Trie trie = new PhoneNumberMatcher(ConsoleClient.getDefaultDictionary()).getTrie();
+        for (PhoneNumberMatcher pm : Arrays.asList(new PhoneNumberMatcher(trie), new DigitIndexMatcher(trie), new MemoizedMatcher(trie)))
+            for (String phone : PHONES) {
+                List<String> expected = new ArrayList<>();
+                pm.matches(phone, expected::add);
+
+                Assert.assertEquals(phone, BigInteger.valueOf(expected.size()), pm.count(phone));
+            }
+    }
+
+    /**
+     * Every page is the same slice of the full search, pages past the end are empty
+     */
+    @Test
+    public void testPages() {
+        PhoneNumberMatcher pm = new PhoneNumberMatcher(ConsoleClient.getDefaultDictionary());
+        for (String phone : PHONES) {
+            List<String> expected = new ArrayList<>();
+            pm.matches(phone, expected::add);
+
+            for (int limit : new int[]{0, 1, 7, 50}) {
+                List<String> paged = new ArrayList<>();
+                for (long offset = 0; offset <= expected.size(); offset += Math.max(limit, 1)) {
+                    List<String> page = pm.page(phone, offset, limit);
+                    Assert.assertEquals(phone, expected.subList((int) offset, (int) Math.min(offset + limit, expected.size())), page);
+                    paged.addAll(page);
+                }
+                if (limit > 0)
+                    Assert.assertEquals(phone, expected, paged);
+            }
+        }
+    }
+
+    /**
+     * A count past a long, and a page deep into it, without enumerating the combinations before it
+     */
+    @Test(timeout = 10000)
+    public void testHugeCount() {
+        PhoneNumberMatcher pm = new PhoneNumberMatcher(new ByteArrayInputStream("a\nb\nc\nab\nba\ncab\n".getBytes(StandardCharsets.UTF_8)));
+        String phone = "22222222222222222222222222222222222222222222222222222222222222222222222222222222";
+
+        BigInteger count = pm.count(phone);
+        Assert.assertTrue(count.compareTo(BigInteger.valueOf(Long.MAX_VALUE)) > 0);
+
+        Assert.assertEquals(Collections.singletonList(String.join("-", Collections.nCopies(40, "AB"))), pm.page(phone, 0, 1));
+        Assert.assertEquals(3, pm.page(phone, Long.MAX_VALUE - 1, 3).size());
+    }
+
+    /**
+     * A count within the limits of a control, none when cut short
+     */
+    @Test
+    public void testControlledCount() {
+        PhoneNumberMatcher pm = new PhoneNumberMatcher(ConsoleClient.getDefaultDictionary());
+        Assert.assertEquals(pm.count("080022556322556345635234"), pm.count("080022556322556345635234", new SearchControl()));
+        Assert.assertEquals(pm.count("080022556322556345635234"), pm.count("080022556322556345635234", null));
+
+        SearchControl control = new SearchControl();
+        control.cancel();
+        Assert.assertNull(pm.count("080022556322556345635234", control));
+
+        pm.setDefaultLimits(Long.MAX_VALUE, 0);
+        Assert.assertNull(pm.count("080022556322556345635234", null));
+    }
+
+    /**
+     * A negative offset or limit is not a page
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeOffset() {
+        new PhoneNumberMatcher(ConsoleClient.getDefaultDictionary()).page("32826382", -1, 10);
+    }
+}
@@ -0,0 +1,104 @@
+package com.phonekeypad.business;
+
+import com.phonekeypad.console.ConsoleClient;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for SpellingIterator and the stream API
+ */
+public class SpellingIteratorTest {
+
+    /**
+     * The iterator gives the same combinations of the full search, in the same order, on every engine.
+     * ForkJoinMatcher emits its full search in no fixed order, so only its combinations are compared.
+     */
+    @Test
+    public void testSameResultsAsFullSearch() {
+        String[] phones = {"32826382", "080032826382", "328206382", "3282006382", "0010001010111010101",
+                "328200638200", "180032820063820", "2222222", "63-6-63-7-25", "ad    f(3g   28)26d  38#as2$ +++k",
+                "080022556322556345635234", "2", "0", "1.2", ""};
+
+        Trie trie = new PhoneNumberMatcher(ConsoleClient.getDefaultDictionary()).getTrie();
+        for (PhoneNumberMatcher pm : Arrays.asList(new PhoneNumberMatcher(trie), new DigitIndexMatcher(trie), new MemoizedMatcher(trie), new ForkJoinMatcher(trie)))
+            for (String phone : phones) {
+                List<String> expected = new ArrayList<>();
+                pm.matches(phone, expected::add);
+
+                List<String> iterated = new ArrayList<>();
+                pm.iterator(phone).forEachRemaining(iterated::add);
+
+                List<String> streamed = pm.stream(phone).collect(Collectors.toList());
+                if (pm instanceof ForkJoinMatcher) {
+                    Collections.sort(expected);
+                    Collections.sort(iterated);
+                    Collections.sort(streamed);
+                }
+
+                Assert.assertEquals(phone, expected, iterated);
+                Assert.assertEquals(phone, expected, streamed);
+            }
+    }
+
+    /**
+     * Taking the first combinations of a number with astronomically many of them stops the search early
+     */
+    @Test(timeout = 10000)
+    public void testShortCircuit() {
+        PhoneNumberMatcher pm = new PhoneNumberMatcher(new ByteArrayInputStream("a\nb\nc\nab\nba\ncab\n".getBytes(StandardCharsets.UTF_8)));
+        String phone = "2222222222222222222222222222222222222222";
+
+        List<String> first = pm.stream(phone).limit(5).collect(Collectors.toList());
+        Assert.assertEquals(5, first.size());
+        Assert.assertEquals(String.join("-", Collections.nCopies(20, "AB")), first.get(0));
+
+        Assert.assertTrue(pm.stream(phone).anyMatch(combination -> combination.endsWith("-BA")));
+    }
+
+    /**
+     * The first combination expands only the states on its path: the words of the other digits are never looked up
+     */
+    @Test
+    public void testLazyExpansion() {
+        int[] lookups = {0};
+        PhoneNumberMatcher pm = new PhoneNumberMatcher(new ByteArrayInputStream("a\nb\nc\nab\nba\ncab\n".getBytes(StandardCharsets.UTF_8))) {
+            @Override
+            protected List<char[]> findWords(String phone, int digitIndex) {
+                lookups[0]++;
+                return super.findWords(phone, digitIndex);
+            }
+        };
+        String phone = "2222222222222222222222222222222222222222";
+
+        Assert.assertEquals(String.join("-", Collections.nCopies(20, "AB")), pm.iterator(phone).next());
+        Assert.assertEquals(20, lookups[0]);
+    }
+
+    /**
+     * The iterator pauses between combinations and fails after the last one
+     */
+    @Test
+    public void testIteratorContract() {
+        PhoneNumberMatcher pm = new PhoneNumberMatcher(ConsoleClient.getDefaultDictionary());
+        Iterator<String> iterator = pm.iterator("2255");
+
+        Assert.assertTrue(iterator.hasNext());
+        Assert.assertTrue(iterator.hasNext());
+        Assert.assertEquals("BALK", iterator.next());
+        while (iterator.hasNext())
+            iterator.next();
+
+        try {
+            iterator.next();
+            Assert.fail();
+        } catch (NoSuchElementException e) {
+            //expected
+        }
+        Assert.assertFalse(pm.iterator("").hasNext());
+    }
+}
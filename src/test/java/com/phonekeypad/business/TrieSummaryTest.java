@@ -0,0 +1,94 @@
+package com.phonekeypad.business;
+
+import com.phonekeypad.console.ConsoleClient;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for TrieSummary
+ */
+public class TrieSummaryTest {
+
+    /**
+     * The root level holds the first letters of all words, the mid levels the letters after a prefix
+     */
+    @Test
+    public void testDigitMasks() {
+        CompactTrie trie = new CompactTrie();
+        trie.put("CALL");
+        trie.put("BALL");
+        trie.put("ME");
+        TrieSummary summary = new TrieSummary(trie, Keypad.getDefault());
+
+        //C and B are 2, M is 6
+        Assert.assertEquals((1 << 2) | (1 << 6), summary.digitMask(trie.root()));
+
+        //after C comes A, that is 2 again
+        int c = trie.find(trie.root(), 'C');
+        Assert.assertEquals(1 << 2, summary.digitMask(trie.mid(c)));
+        Assert.assertEquals(0, summary.digitMask(Trie.NIL));
+    }
+
+    /**
+     * The fewest letters to finish a word, from the level on
+     */
+    @Test
+    public void testMinLengths() {
+        CompactTrie trie = new CompactTrie();
+        trie.put("CALL");
+        trie.put("ME");
+        TrieSummary summary = new TrieSummary(trie, Keypad.getDefault());
+
+        Assert.assertEquals(2, summary.minLength(trie.root()));
+        Assert.assertEquals(3, summary.minLength(trie.mid(trie.find(trie.root(), 'C'))));
+
+        Assert.assertTrue(summary.canContinue(trie.root(), "63", 0));
+        Assert.assertFalse(summary.canContinue(trie.root(), "6", 0)); //ME needs two digits
+        Assert.assertFalse(summary.canContinue(trie.root(), "93", 0)); //no word starting with 9
+        Assert.assertFalse(summary.canContinue(trie.root(), "13", 0));
+    }
+
+    /**
+     * Letters out of the keypad are never matched, so they don't count
+     */
+    @Test
+    public void testLettersOutOfKeypad() {
+        CompactTrie trie = new CompactTrie();
+        trie.put("QUIZ");
+        trie.put("MQ");
+        TrieSummary summary = new TrieSummary(trie, Keypad.builtIn("legacy"));
+
+        Assert.assertEquals(0, summary.digitMask(trie.root()));
+        Assert.assertFalse(summary.canContinue(trie.root(), "6666", 0));
+    }
+
+    /**
+     * Pruning must not change the results, only drop dead branches earlier
+     */
+    @Test
+    public void testPruningKeepsResults() {
+        Trie trie = new PhoneNumberMatcher(ConsoleClient.getDefaultDictionary()).getTrie();
+        PhoneNumberMatcher pruned = new PhoneNumberMatcher(trie);
+        PhoneNumberMatcher unpruned = new PhoneNumberMatcher(trie) {
+            @Override
+            protected void summarizeTrie() {
+            }
+        };
+        SearchStats prunedStats = pruned.enableStats();
+        SearchStats unprunedStats = unpruned.enableStats();
+
+        for (String phone : new String[]{"225563", "32826382", "0800328263", "9999999999", "6666"}) {
+            List<String> expected = new ArrayList<>();
+            List<String> results = new ArrayList<>();
+            unpruned.matches(phone, expected::add);
+            pruned.matches(phone, results::add);
+
+            Assert.assertEquals(expected, results);
+        }
+
+        Assert.assertTrue(prunedStats.getNodesVisited() < unprunedStats.getNodesVisited());
+    }
+}
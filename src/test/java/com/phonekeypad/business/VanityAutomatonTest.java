@@ -0,0 +1,86 @@
+package com.phonekeypad.business;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+/**
+ * Tests for VanityAutomaton
+ */
+public class VanityAutomatonTest {
+
+    /**
+     * Overlapping words and words sharing their digits are all found
+     */
+    @Test
+    public void testOverlapping() {
+        VanityAutomaton automaton = new VanityAutomaton(Arrays.asList("call", "ball", "all", "Caf\u00e9"), Keypad.getDefault());
+        Assert.assertEquals(4, automaton.getWordCount());
+
+        Assert.assertEquals(Arrays.asList("1 BALL 1-BALL-32233", "1 CALL 1-CALL-32233", "2 ALL 12-ALL-32233", "6 CAFE 122553-CAFE"), scan(automaton, "1225532233"));
+        Assert.assertEquals(Collections.singletonList("0 ALL ALL"), scan(automaton, "255"));
+    }
+
+    /**
+     * A dot breaks the words, and words out of the keypad are ignored
+     */
+    @Test
+    public void testNotSpelled() {
+        VanityAutomaton automaton = new VanityAutomaton(Arrays.asList("call", "caf\u00e9!", "", "  "), Keypad.getDefault());
+        Assert.assertEquals(1, automaton.getWordCount());
+
+        Assert.assertTrue(scan(automaton, "22.55").isEmpty());
+        Assert.assertTrue(scan(automaton, "").isEmpty());
+    }
+
+    /**
+     * Same occurrences of a naive scan of every position and word
+     */
+    @Test
+    public void testSameAsNaiveScan() {
+        Random random = new Random(3);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int j = random.nextInt(5); j >= 0; j--)
+                word.append((char) ('A' + random.nextInt(26)));
+            words.add(word.toString());
+        }
+        VanityAutomaton automaton = new VanityAutomaton(words, Keypad.getDefault());
+
+        for (int n = 0; n < 200; n++) {
+            StringBuilder phone = new StringBuilder();
+            for (int j = 0; j < 12; j++)
+                phone.append((char) ('0' + random.nextInt(10)));
+
+            List<String> expected = new ArrayList<>();
+            for (String word : new TreeSet<>(words))
+                for (int start = 0; start + word.length() <= phone.length(); start++)
+                    if (phone.substring(start, start + word.length()).equals(digits(word)))
+                        expected.add(start + " " + word);
+
+            List<String> found = new ArrayList<>();
+            automaton.scan(phone.toString().toCharArray(), phone.length(), (p, length, start, word) -> found.add(start + " " + word));
+
+            Collections.sort(expected);
+            Collections.sort(found);
+            Assert.assertEquals(phone.toString(), expected, found);
+        }
+    }
+
+    private static String digits(String word) {
+        StringBuilder digits = new StringBuilder();
+        for (char c : word.toCharArray())
+            digits.append(Keypad.getDefault().digitOf(c));
+        return digits.toString();
+    }
+
+    private static List<String> scan(VanityAutomaton automaton, String phone) {
+        List<String> found = new ArrayList<>();
+        automaton.scan(phone.toCharArray(), phone.length(),
+                (p, length, start, word) -> found.add(start + " " + word + " " + VanityAutomaton.spelling(p, length, start, word)));
+        Collections.sort(found);
+        return found;
+    }
+}
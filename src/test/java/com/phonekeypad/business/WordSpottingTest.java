@@ -0,0 +1,68 @@
+package com.phonekeypad.business;
+
+import com.phonekeypad.console.ConsoleClient;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Tests for the word spotting of PhoneNumberMatcher
+ */
+public class WordSpottingTest {
+    private static final String DICTIONARY = "call\nball\nall\nflowers\nnow\nno\n";
+
+    /**
+     * Words anywhere in the number, even when no combination covers the whole number
+     */
+    @Test
+    public void testSpot() {
+        PhoneNumberMatcher pm = new PhoneNumberMatcher(dictionary());
+
+        List<String> combinations = new ArrayList<>();
+        pm.matches("44-356-9377", combinations::add);
+        Assert.assertTrue(combinations.isEmpty());
+
+        Assert.assertEquals(Arrays.asList(new WordHit(2, 9, "FLOWERS")), pm.spot("44-356-9377"));
+        Assert.assertEquals(Arrays.asList(new WordHit(0, 2, "NO"), new WordHit(0, 3, "NOW"), new WordHit(3, 7, "BALL"),
+                new WordHit(3, 7, "CALL"), new WordHit(4, 7, "ALL")), pm.spot("669 2255"));
+        Assert.assertTrue(pm.spot("66.9").contains(new WordHit(0, 2, "NO")));
+        Assert.assertTrue(pm.spot("").isEmpty());
+    }
+
+    /**
+     * Every engine spots the same words, the digit index even with no letter trie
+     */
+    @Test
+    public void testSameHitsOnEveryEngine() {
+        String phone = "080022556322556345635234";
+        List<WordHit> expected = new PhoneNumberMatcher(ConsoleClient.getDefaultDictionary()).spot(phone);
+        Assert.assertFalse(expected.isEmpty());
+
+        Trie trie = new PhoneNumberMatcher(ConsoleClient.getDefaultDictionary()).getTrie();
+        for (PhoneNumberMatcher pm : Arrays.asList(new DigitIndexMatcher(ConsoleClient.getDefaultDictionary()), new DigitIndexMatcher(trie),
+                new MemoizedMatcher(trie), new ForkJoinMatcher(trie), new ReloadableMatcher(new PhoneNumberMatcher(trie), PhoneNumberMatcher::new)))
+            Assert.assertEquals(pm.getClass().getSimpleName(), expected, pm.spot(phone));
+    }
+
+    /**
+     * The hits of a long number come in a linear pass, where the whole number combinations are astronomically many
+     */
+    @Test(timeout = 10000)
+    public void testLongNumber() {
+        PhoneNumberMatcher pm = new PhoneNumberMatcher(dictionary());
+        StringBuilder phone = new StringBuilder();
+        for (int i = 0; i < 10000; i++)
+            phone.append("2255");
+
+        List<WordHit> hits = pm.spot(phone.toString());
+        Assert.assertEquals(10000 * 3, hits.size());
+        Assert.assertEquals(new WordHit(39997, 40000, "ALL"), hits.get(hits.size() - 1));
+    }
+
+    private static ByteArrayInputStream dictionary() {
+        return new ByteArrayInputStream(DICTIONARY.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,14 +1,22 @@
 package com.phonekeypad.console;
 
+import com.phonekeypad.business.PhoneNumberMatcher;
+import com.phonekeypad.business.Trie;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 
 /**
@@ -65,6 +73,224 @@ public class ConsoleFileProcessingTests {
         ));
     }
 
+    /**
+     * A compiled dictionary snapshot must be accepted by the -d flag, giving the same results
+     */
+    @Test
+    public void testCompiledDictionary() throws IOException {
+        File snapshot = File.createTempFile("darcio_dict", ".snapshot");
+        snapshot.deleteOnExit();
+
+        callAsBatchConsoleApp("-d=/darcio_dict", "--compile=" + snapshot.getAbsolutePath());
+
+        List<String> expected = callAsBatchConsoleApp("-d=/darcio_dict", "/phonesToProcess");
+        Assert.assertEquals(expected, callAsBatchConsoleApp("-d=" + snapshot.getAbsolutePath(), "/phonesToProcess"));
+        Assert.assertEquals(expected, callAsBatchConsoleApp("-d=" + snapshot.getAbsolutePath(), "--engine=digits", "/phonesToProcess"));
+    }
+
+    /**
+     * A watched snapshot is read into the heap, not mapped: rewriting the file in place can not pull the pages
+     * from under the trie in use
+     */
+    @Test
+    public void testWatchedSnapshotNotMapped() throws IOException {
+        File snapshot = File.createTempFile("darcio_dict", ".snapshot");
+        try {
+            callAsBatchConsoleApp("-d=/darcio_dict", "--compile=" + snapshot.getAbsolutePath());
+
+            Trie trie = ConsoleClient.mapSnapshot(snapshot.getAbsolutePath(), ConsoleClient.getInputStream(snapshot.getAbsolutePath()), true);
+            Files.write(snapshot.toPath(), new byte[0]);
+
+            List<String> results = new ArrayList<>();
+            new PhoneNumberMatcher(trie).matches("32826382", results::add);
+            Assert.assertThat(results, Matchers.hasItem("DATA-NEVA"));
+        } finally {
+            Assert.assertTrue(snapshot.delete());
+        }
+    }
+
+    /**
+     * The parallel pipeline must write exactly the sequential results, in the same order
+     */
+    @Test
+    public void testParallelProcessingOrder() {
+        String[] files = {"/phonesToProcess", "/phonesToProcess_unique", "/phonesToProcess_notUnique", "/phonesToProcess_notSameSize"};
+
+        List<String> expected = callAsBatchConsoleApp(concat("-d=/darcio_dict", files));
+        List<String> parallel = callAsBatchConsoleApp(concat("--threads=4", concat("-d=/darcio_dict", files)));
+
+        Assert.assertTrue(expected.size() > 100);
+        Assert.assertEquals(expected, parallel);
+    }
+
+    /**
+     * Numbers with MB of results stream through the parallel pipeline in chunks, still in order
+     */
+    @Test
+    public void testParallelLargeResults() throws IOException {
+        File phones = File.createTempFile("phonespell-large", ".txt");
+        try {
+            Files.write(phones.toPath(), Arrays.asList("22556322", "7246837", "32826382", "22556322", "0"));
+
+            List<String> expected = callAsBatchConsoleApp("-d=/ubuntu_english_dict", phones.getAbsolutePath());
+            Assert.assertTrue(expected.size() > 100000);
+            Assert.assertEquals(expected, callAsBatchConsoleApp("-d=/ubuntu_english_dict", "--threads=3", phones.getAbsolutePath()));
+        } finally {
+            Assert.assertTrue(phones.delete());
+        }
+    }
+
+    /**
+     * The stats flag doesn't change the results
+     */
+    @Test
+    public void testStatsFlag() {
+        List<String> expected = callAsBatchConsoleApp("-d=/darcio_dict", "/phonesToProcess");
+        List<String> withStats = callAsBatchConsoleApp("-d=/darcio_dict", "--stats", "/phonesToProcess");
+
+        Assert.assertEquals(expected, withStats);
+    }
+
+    /**
+     * The result cache doesn't change the results of repeated numbers
+     */
+    @Test
+    public void testCacheFlag() {
+        List<String> expected = callAsBatchConsoleApp("-d=/darcio_dict", "/phonesToProcess_notUnique", "/phonesToProcess_notUnique");
+        List<String> cached = callAsBatchConsoleApp("-d=/darcio_dict", "--cache=2", "/phonesToProcess_notUnique", "/phonesToProcess_notUnique");
+
+        Assert.assertEquals(expected, cached);
+    }
+
+    /**
+     * The unique mode prints every combination of the batch once, in memory or spilling to disk
+     */
+    @Test
+    public void testUniqueFlag() {
+        List<String> all = callAsBatchConsoleApp("-d=/darcio_dict", "/phonesToProcess_notUnique", "/phonesToProcess_notUnique");
+        Assert.assertFalse(isUniqueResults(new ArrayList<>(all)));
+
+        for (String unique : new String[]{"--unique", "--unique=1"}) {
+            List<String> list = callAsBatchConsoleApp("-d=/darcio_dict", unique, "--threads=2", "/phonesToProcess_notUnique", "/phonesToProcess_notUnique");
+            Assert.assertTrue(isUniqueResults(new ArrayList<>(list)));
+            Assert.assertEquals(new HashSet<>(all), new HashSet<>(list));
+        }
+    }
+
+    /**
+     * The minimized dictionary answers the same combinations
+     */
+    @Test
+    public void testDawgFlag() {
+        List<String> expected = callAsBatchConsoleApp("-d=/darcio_dict", "/phonesToProcess_unique");
+        Assert.assertEquals(expected, callAsBatchConsoleApp("-d=/darcio_dict", "--dawg", "/phonesToProcess_unique"));
+        //fork join tasks print in any order
+        Assert.assertEquals(new HashSet<>(expected), new HashSet<>(callAsBatchConsoleApp("-d=/darcio_dict", "--dawg", "--engine=forkjoin", "/phonesToProcess_unique")));
+    }
+
+    /**
+     * The reverse search prints the inventory numbers spelling the target words
+     */
+    @Test
+    public void testVanityFlag() throws IOException {
+        File words = File.createTempFile("vanity", ".txt");
+        File inventory = File.createTempFile("inventory", ".txt");
+        words.deleteOnExit();
+        inventory.deleteOnExit();
+        Files.write(words.toPath(), Arrays.asList("Flowers", "call"));
+        Files.write(inventory.toPath(), Arrays.asList("1-800-356-9377", "555 1234", "2255"));
+
+        List<String> list = callAsBatchConsoleApp("--vanity=" + words.getPath(), inventory.getPath());
+        Assert.assertEquals(Arrays.asList("18003569377\t4\tFLOWERS\t1800-FLOWERS", "2255\t0\tCALL\tCALL"), list);
+    }
+
+    /**
+     * The words spotted anywhere in the numbers, instead of the combinations
+     */
+    @Test
+    public void testSpotFlag() throws IOException {
+        File dictionary = File.createTempFile("dictionary", ".txt");
+        File phones = File.createTempFile("phones", ".txt");
+        dictionary.deleteOnExit();
+        phones.deleteOnExit();
+        Files.write(dictionary.toPath(), Arrays.asList("Flowers", "call", "all"));
+        Files.write(phones.toPath(), Arrays.asList("1-800-356-9377", "555 1234", "2255"));
+
+        List<String> list = callAsBatchConsoleApp("-d=" + dictionary.getPath(), "--spot", phones.getPath());
+        Assert.assertEquals(Arrays.asList("18003569377\t4\t11\tFLOWERS", "2255\t0\t4\tCALL", "2255\t1\t4\tALL"), list);
+    }
+
+    /**
+     * The front coded output, sequential or parallel, decodes back to the plain output
+     */
+    @Test
+    public void testFrontCodedFlag() throws IOException {
+        List<String> expected = callAsBatchConsoleApp("-d=/darcio_dict", "/phonesToProcess");
+
+        for (String threads : new String[]{"--threads=1", "--threads=3"}) {
+            List<String> coded = callAsBatchConsoleApp("-d=/darcio_dict", "--front-coded", threads, "/phonesToProcess");
+            Assert.assertNotEquals(expected, coded);
+
+            File file = File.createTempFile("frontCoded", ".txt");
+            file.deleteOnExit();
+            Files.write(file.toPath(), coded);
+            Assert.assertEquals(expected, callAsBatchConsoleApp("--decode", file.getPath()));
+        }
+    }
+
+    /**
+     * Test for an invalid number of threads
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotValidThreadsFlag() {
+        callAsBatchConsoleApp("-d=/darcio_dict", "--threads=0", "/phonesToProcess");
+    }
+
+    /**
+     * A built in keypad selected by name
+     */
+    @Test
+    public void testKeypadFlag() {
+        List<String> list = callAsBatchConsoleApp("-d=/darcio_dict", "--keypad=legacy", "/phonesToProcess_unique");
+
+        Assert.assertThat(list, Matchers.hasItem("DATA-NEV-BEG"));
+        for (String result : list)
+            Assert.assertFalse(result, result.contains("Q") || result.contains("Z"));
+    }
+
+    /**
+     * The combinations of a non Latin keypad are written as UTF-8, whatever the platform charset
+     */
+    @Test
+    public void testNonLatinOutput() throws IOException {
+        File dictionary = File.createTempFile("phonespell-greek", ".txt");
+        File phones = File.createTempFile("phonespell-greek", ".txt");
+        try {
+            Files.write(dictionary.toPath(), Arrays.asList("\u0391\u0394\u0397", "\u0392\u0395"), StandardCharsets.UTF_8);
+            Files.write(phones.toPath(), Arrays.asList("234", "1-23"));
+
+            for (String threads : new String[]{"--threads=1", "--threads=2"}) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ConsoleClient.startConsoleClient(new String[]{"-d=" + dictionary.getAbsolutePath(), "--keypad=greek", threads, phones.getAbsolutePath()},
+                        new ByteArrayInputStream(new byte[]{}), out);
+
+                Assert.assertEquals(Arrays.asList("\u0391\u0394\u0397", "\u0392\u0395-4", "1-\u0392\u0395"),
+                        Arrays.asList(new String(out.toByteArray(), StandardCharsets.UTF_8).split(System.lineSeparator())));
+            }
+        } finally {
+            Assert.assertTrue(dictionary.delete());
+            Assert.assertTrue(phones.delete());
+        }
+    }
+
+    /**
+     * Test for a keypad that is neither built in nor a file
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotValidKeypadFlag() {
+        callAsBatchConsoleApp("-d=/darcio_dict", "--keypad=notExistentKeypad", "/phonesToProcess");
+    }
+
     /**
      * Test for the size of results and unicity
      */
@@ -158,15 +384,27 @@ public class ConsoleFileProcessingTests {
         return isUnique;
     }
 
+    /**
+     * Put an argument before the others
+     *
+     * @param first
+     * @param others
+     * @return
+     */
+    private String[] concat(String first, String... others) {
+        String[] args = new String[others.length + 1];
+        args[0] = first;
+        System.arraycopy(others, 0, args, 1, others.length);
+        return args;
+    }
+
     /**
      * Call the batch console application
      *
-     * @param dictionaryFile
-     * @param fileToProcess
+     * @param args
      * @return
      */
-    private List<String> callAsBatchConsoleApp(String dictionaryFile, String fileToProcess) {
-        String[] args = new String[]{dictionaryFile, fileToProcess};
+    private List<String> callAsBatchConsoleApp(String... args) {
 
         ByteArrayInputStream in = new ByteArrayInputStream(new byte[]{});
         ByteArrayOutputStream out = new ByteArrayOutputStream();
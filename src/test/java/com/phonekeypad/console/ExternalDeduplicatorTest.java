@@ -0,0 +1,55 @@
+package com.phonekeypad.console;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Tests for ExternalDeduplicator
+ */
+public class ExternalDeduplicatorTest {
+
+    /**
+     * Every distinct line once, sorted, whether it stays in memory or spills to runs
+     */
+    @Test
+    public void testUniqueSorted() throws IOException {
+        Random random = new Random(7);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 5000; i++)
+            lines.add(Integer.toString(random.nextInt(800)));
+
+        for (long budget : new long[]{ExternalDeduplicator.DEFAULT_MEMORY_BUDGET, 10000, 1}) {
+            List<String> unique = new ArrayList<>();
+            try (ExternalDeduplicator deduplicator = new ExternalDeduplicator(budget)) {
+                for (String line : lines)
+                    deduplicator.add(line);
+                deduplicator.forEachUnique(unique::add);
+
+                Assert.assertEquals(budget == ExternalDeduplicator.DEFAULT_MEMORY_BUDGET, deduplicator.getRuns() == 0);
+            }
+
+            Assert.assertEquals(new ArrayList<>(new TreeSet<>(lines)), unique);
+        }
+    }
+
+    /**
+     * Nothing added, nothing given
+     */
+    @Test
+    public void testEmpty() throws IOException {
+        try (ExternalDeduplicator deduplicator = new ExternalDeduplicator(1)) {
+            deduplicator.forEachUnique(line -> Assert.fail(line));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBudget() {
+        new ExternalDeduplicator(0);
+    }
+}
@@ -0,0 +1,98 @@
+package com.phonekeypad.console;
+
+import com.phonekeypad.business.PhoneNumberMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for FrontCodedWriter and FrontCodedReader
+ */
+public class FrontCodedTest {
+
+    /**
+     * Every line keeps only what is not shared with the previous combination
+     */
+    @Test
+    public void testEncode() {
+        Assert.assertEquals(Arrays.asList("0\tDATA-00-NEVA", "11\tB", "6\t-ME", "0\tCALL", "0\tCALL"),
+                encode("DATA-00-NEVA", "DATA-00-NEVB", "DATA-0-ME", "CALL", null, "CALL"));
+        Assert.assertEquals(Arrays.asList("0\tCALL", "4\t", "3\t"), encode("CALL", "CALL", "CAL"));
+    }
+
+    /**
+     * The decoder gives back the plain combinations of a real search
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        PhoneNumberMatcher pm = new PhoneNumberMatcher(getClass().getResourceAsStream("/darcio_dict"));
+        List<String> expected = new ArrayList<>();
+        pm.matches("080022556322556345635234", expected::add);
+
+        StringWriter coded = new StringWriter();
+        PrintWriter pw = new PrintWriter(coded);
+        pm.spell("080022556322556345635234", new FrontCodedWriter(pw));
+        pw.flush();
+        Assert.assertTrue(coded.toString().length() * 2 < String.join("\n", expected).length());
+
+        Assert.assertEquals(expected, decode(coded.toString()));
+    }
+
+    /**
+     * The front coded files are UTF-8, like every file of the console client
+     */
+    @Test
+    public void testUtf8() throws IOException {
+        Assert.assertEquals(Arrays.asList("\u0391\u0392\u0393-2", "\u0391\u0392\u0394"), decode("0\t\u0391\u0392\u0393-2\n2\t\u0394\n"));
+    }
+
+    /**
+     * A line not written by FrontCodedWriter is not decoded
+     */
+    @Test
+    public void testInvalidLines() throws IOException {
+        for (String invalid : new String[]{"CALL", "\tCALL", "X\tCALL", "-1\tCALL", "0\tCALL\n5\tS"}) {
+            try {
+                decode(invalid);
+                Assert.fail(invalid);
+            } catch (IllegalArgumentException e) {
+                //expected
+            }
+        }
+    }
+
+    /**
+     * @param combinations null resets the writer
+     */
+    private static List<String> encode(String... combinations) {
+        StringWriter coded = new StringWriter();
+        PrintWriter pw = new PrintWriter(coded);
+        FrontCodedWriter writer = new FrontCodedWriter(pw);
+        for (String combination : combinations) {
+            if (combination == null)
+                writer.reset();
+            else
+                writer.accept(combination.toCharArray(), combination.length());
+        }
+        pw.flush();
+        return Arrays.asList(coded.toString().split(System.lineSeparator()));
+    }
+
+    private static List<String> decode(String coded) throws IOException {
+        StringWriter plain = new StringWriter();
+        PrintWriter pw = new PrintWriter(plain);
+        FrontCodedReader.decode(new ByteArrayInputStream(coded.getBytes(StandardCharsets.UTF_8)), pw);
+        pw.flush();
+
+        List<String> lines = new ArrayList<>();
+        BufferedReader br = new BufferedReader(new StringReader(plain.toString()));
+        for (String line = br.readLine(); line != null; line = br.readLine())
+            lines.add(line);
+        return lines;
+    }
+}
@@ -0,0 +1,160 @@
+package com.phonekeypad.console;
+
+import com.phonekeypad.business.PhoneNumberMatcher;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for the HTTP query server
+ */
+public class HttpQueryServerTest {
+    private PhoneNumberMatcher pm;
+    private HttpQueryServer server;
+
+    /**
+     * Start a server on any free port
+     */
+    @Before
+    public void setUp() throws IOException {
+        this.pm = new PhoneNumberMatcher(getClass().getResourceAsStream("/darcio_dict"));
+        this.server = new HttpQueryServer(this.pm, 0);
+        this.server.start();
+    }
+
+    @After
+    public void tearDown() {
+        this.server.stop(0);
+    }
+
+    /**
+     * A single number answers the same combinations of the matcher, chunked
+     */
+    @Test
+    public void testSingleNumber() throws IOException {
+        HttpURLConnection connection = open("?phone=3282%2D6382");
+
+        Assert.assertEquals(200, connection.getResponseCode());
+        Assert.assertEquals("chunked", connection.getHeaderField("Transfer-Encoding"));
+        Assert.assertEquals(matches("32826382"), readLines(connection));
+    }
+
+    /**
+     * A batch answers the combinations of every number, in order
+     */
+    @Test
+    public void testBatch() throws IOException {
+        List<String> expected = matches("32826382", "080032826382");
+
+        Assert.assertEquals(expected, readLines(open("?phone=32826382&phone=080032826382")));
+
+        HttpURLConnection connection = open("");
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        OutputStream body = connection.getOutputStream();
+        body.write("32826382\n080032826382\n".getBytes(StandardCharsets.UTF_8));
+        body.close();
+
+        Assert.assertEquals(expected, readLines(connection));
+    }
+
+    /**
+     * A page of the combinations, with the total count of a single number
+     */
+    @Test
+    public void testPage() throws IOException {
+        List<String> expected = matches("080032826382");
+
+        HttpURLConnection connection = open("?phone=080032826382&offset=2&limit=3");
+        Assert.assertEquals(200, connection.getResponseCode());
+        Assert.assertEquals(String.valueOf(expected.size()), connection.getHeaderField("X-Total-Count"));
+        Assert.assertEquals(expected.subList(2, 5), readLines(connection));
+
+        Assert.assertEquals(expected.subList(expected.size() - 1, expected.size()), readLines(open("?phone=080032826382&offset=" + (expected.size() - 1))));
+        Assert.assertEquals(400, open("?phone=080032826382&offset=-1").getResponseCode());
+        Assert.assertEquals(400, open("?phone=080032826382&limit=ten").getResponseCode());
+    }
+
+    /**
+     * An offset without a limit is a bounded page, and a page is cut short by the default limits of the matcher
+     */
+    @Test
+    public void testBoundedPage() throws IOException {
+        List<String> expected = matches("080022556322556345635234");
+        Assert.assertTrue(expected.size() > 100);
+
+        Assert.assertEquals(expected.subList(0, 100), readLines(open("?phone=080022556322556345635234&offset=0")));
+
+        this.pm.setDefaultLimits(3, Long.MAX_VALUE);
+        Assert.assertEquals(expected.subList(5, 8), readLines(open("?phone=080022556322556345635234&offset=5&limit=50")));
+    }
+
+    /**
+     * A failed write, like a client gone, stops the search at once instead of formatting every combination
+     */
+    @Test(timeout = 10000)
+    public void testClientGone() {
+        PhoneNumberMatcher shortWords = new PhoneNumberMatcher(new ByteArrayInputStream("a\nb\nc\nab\nba\ncab\n".getBytes(StandardCharsets.UTF_8)));
+        int[] writes = {0};
+        Writer gone = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                if (++writes[0] > 10)
+                    throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        try {
+            shortWords.spell("2222222222222222222222222222222222222222", HttpQueryServer.responder(gone));
+            Assert.fail();
+        } catch (UncheckedIOException e) {
+            Assert.assertEquals(11, writes[0]);
+        }
+    }
+
+    /**
+     * No number at all is a bad request
+     */
+    @Test
+    public void testNoNumber() throws IOException {
+        Assert.assertEquals(400, open("").getResponseCode());
+        Assert.assertEquals(400, open("?number=32826382").getResponseCode());
+    }
+
+    private HttpURLConnection open(String query) throws IOException {
+        URL url = new URL("http://localhost:" + this.server.getPort() + HttpQueryServer.SPELL_PATH + query);
+        return (HttpURLConnection) url.openConnection();
+    }
+
+    private List<String> matches(String... phones) {
+        List<String> results = new ArrayList<>();
+        for (String phone : phones)
+            this.pm.matches(phone, results::add);
+        return results;
+    }
+
+    private static List<String> readLines(HttpURLConnection connection) throws IOException {
+        List<String> lines = new ArrayList<>();
+        BufferedReader br = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+        for (String line = br.readLine(); line != null; line = br.readLine())
+            lines.add(line);
+        br.close();
+        return lines;
+    }
+}
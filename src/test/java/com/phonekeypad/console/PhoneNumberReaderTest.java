@@ -0,0 +1,91 @@
+package com.phonekeypad.console;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for PhoneNumberReader
+ */
+public class PhoneNumberReaderTest {
+
+    /**
+     * Only digits and dots are kept, whatever the line separators
+     */
+    @Test
+    public void testLines() throws IOException {
+        List<String> phones = readAll("225563\n3282-6382\r\n\n0800.CALL\r2255", 1 << 16);
+
+        Assert.assertEquals(Arrays.asList("225563", "32826382", "", "", "0800.", "2255"), phones);
+    }
+
+    /**
+     * Dirty and non ASCII chars are dropped, like the regex cleaning did
+     */
+    @Test
+    public void testDirtyInput() throws IOException {
+        List<String> phones = readAll("ad    f(3g   28)26d  fsjh  \u00b4'  dfdf   38#as2$ +++k\n\u0663\u0664 12", 1 << 16);
+
+        Assert.assertEquals(Arrays.asList("32826382", "12"), phones);
+    }
+
+    /**
+     * Lines crossing the buffer boundaries, and longer than the digits buffer
+     */
+    @Test
+    public void testSmallBuffer() throws IOException {
+        StringBuilder longPhone = new StringBuilder();
+        for (int i = 0; i < 100; i++)
+            longPhone.append(i % 10);
+
+        List<String> phones = readAll("225563\n" + longPhone + "\n3282-6382", 3);
+
+        Assert.assertEquals(Arrays.asList("225563", longPhone.toString(), "32826382"), phones);
+    }
+
+    /**
+     * Empty input
+     */
+    @Test
+    public void testEmptyInput() throws IOException {
+        Assert.assertTrue(readAll("", 16).isEmpty());
+        Assert.assertEquals(Arrays.asList("1"), readAll("1\n", 16));
+    }
+
+    /**
+     * A file is read through its FileChannel, with the same lines of the stream
+     */
+    @Test
+    public void testFileChannel() throws IOException {
+        String input = "225563\n3282-6382\r\n\n0800.CALL\r\u0663\u0664 12";
+        File file = File.createTempFile("phonespell-reader", ".txt");
+        try {
+            Files.write(file.toPath(), input.getBytes(StandardCharsets.UTF_8));
+            for (int bufferSize : new int[]{3, 1 << 16})
+                Assert.assertEquals(readAll(input, bufferSize), readAll(new FileInputStream(file), bufferSize));
+        } finally {
+            Assert.assertTrue(file.delete());
+        }
+    }
+
+    private static List<String> readAll(String input, int bufferSize) throws IOException {
+        return readAll(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), bufferSize);
+    }
+
+    private static List<String> readAll(InputStream input, int bufferSize) throws IOException {
+        PhoneNumberReader reader = new PhoneNumberReader(input, bufferSize);
+        List<String> phones = new ArrayList<>();
+
+        for (int length = reader.nextPhone(); length != -1; length = reader.nextPhone())
+            phones.add(new String(reader.getDigits(), 0, length));
+
+        reader.close();
+        return phones;
+    }
+}